@@ -0,0 +1,315 @@
+/*
+ * Copyright (C) 2026 Parisi Alessandro - alessandro.parisi406@gmail.com
+ * This file is part of HotSwapFX (https://github.com/palexdev/HotSwapFX)
+ *
+ * HotSwapFX is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * HotSwapFX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with HotSwapFX. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.palexdev.hotswapfx.core;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import io.github.palexdev.hotswapfx.core.annotations.Dispose;
+import io.github.palexdev.hotswapfx.core.annotations.Factory;
+import io.github.palexdev.hotswapfx.core.annotations.HotSwappable;
+import io.github.palexdev.hotswapfx.core.annotations.Preserve;
+import io.github.palexdev.hotswapfx.core.annotations.SwapStrategy;
+import javafx.beans.property.Property;
+import javafx.scene.Node;
+import org.tinylog.Logger;
+
+/// Per-class cache of everything the hot swap system needs to know about a type to track and replace its instances.
+///
+/// The reflective lookup of [Factory], [SwapStrategy] and [Dispose] methods (as well as the no-args constructor) is done only once
+/// per class version and stored as [MethodHandle]s, so that the per-instance cost is just a direct handle invocation.
+///
+/// The same goes for the [HotSwappable] annotation: dependencies and the resources [PathMatcher] are computed once,
+/// rather than every time a new instance is registered. And for fields marked by [Preserve] or holding properties to
+/// unbind (see [HotSwappable#unbind()]), whose accessors are resolved once.
+///
+/// Metadata is computed lazily by [#of(Class)] and must be discarded with [#invalidate(Class)] every time the class is
+/// redefined.
+final class ClassMetadata {
+
+    //================================================================================
+    // Static Properties
+    //================================================================================
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType FACTORY_TYPE = MethodType.methodType(Node.class, Node.class);
+    private static final MethodType STRATEGY_TYPE = MethodType.methodType(void.class, Node.class, Node.class);
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Node.class);
+    private static final MethodType DISPOSE_TYPE = MethodType.methodType(void.class, Node.class);
+
+    private static final ClassValue<ClassMetadata> CACHE = new ClassValue<>() {
+        @Override
+        protected ClassMetadata computeValue(Class<?> type) {
+            return new ClassMetadata(type);
+        }
+    };
+
+    //================================================================================
+    // Properties
+    //================================================================================
+
+    private final Class<?> klass;
+    private final MethodHandle factory;
+    private final MethodHandle strategy;
+    private final MethodHandle constructor;
+    private final ReflectiveOperationException constructorError;
+    private final MethodHandle dispose;
+    private final List<PreservedField> preserved;
+    private final List<MethodHandle> bound;
+
+    private final HotSwappable annotation;
+    private final Set<Class<?>> dependencies;
+    private final PathMatcher resourcesMatcher;
+
+    //================================================================================
+    // Constructors
+    //================================================================================
+
+    private ClassMetadata(Class<?> klass) {
+        this.klass = klass;
+        MethodHandle factory = null;
+        MethodHandle strategy = null;
+        MethodHandle dispose = null;
+        for (Method m : klass.getDeclaredMethods()) {
+            if (factory == null && m.isAnnotationPresent(Factory.class)) {
+                factory = unreflect(m, FACTORY_TYPE);
+            } else if (strategy == null && m.isAnnotationPresent(SwapStrategy.class)) {
+                strategy = unreflect(m, STRATEGY_TYPE);
+            } else if (dispose == null && m.isAnnotationPresent(Dispose.class)) {
+                dispose = unreflect(m, DISPOSE_TYPE);
+            }
+        }
+        this.factory = factory;
+        this.strategy = strategy;
+        this.dispose = dispose;
+
+        MethodHandle constructor = null;
+        ReflectiveOperationException constructorError = null;
+        if (Node.class.isAssignableFrom(klass)) {
+            try {
+                Constructor<?> noArgs = klass.getConstructor();
+                // Core does not read user modules, the accessible flag skips that check as Constructor#newInstance does
+                noArgs.trySetAccessible();
+                constructor = LOOKUP.unreflectConstructor(noArgs).asType(CONSTRUCTOR_TYPE);
+            } catch (NoSuchMethodException | IllegalAccessException ex) {
+                // Not an error until a new instance is actually requested and there is no factory
+                constructorError = ex;
+            }
+        }
+        this.constructor = constructor;
+        this.constructorError = constructorError;
+
+        List<PreservedField> preserved = new ArrayList<>();
+        for (Class<?> c = klass; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field f : c.getDeclaredFields()) {
+                if (!f.isAnnotationPresent(Preserve.class) || Modifier.isStatic(f.getModifiers())) continue;
+                try {
+                    f.setAccessible(true);
+                    preserved.add(new PreservedField(f, LOOKUP.unreflectGetter(f), LOOKUP.unreflectSetter(f)));
+                } catch (Exception ex) {
+                    Logger.error(ex, "Invalid field {}, it will not be preserved", f);
+                }
+            }
+        }
+        this.preserved = List.copyOf(preserved);
+
+        this.annotation = klass.getAnnotation(HotSwappable.class);
+        List<MethodHandle> bound = new ArrayList<>();
+        if (annotation != null && annotation.unbind()) {
+            // Only the user's classes, third-party superclasses are usually not accessible and manage their own bindings
+            for (Class<?> c = klass; isUserClass(c, klass.getModule()); c = c.getSuperclass()) {
+                for (Field f : c.getDeclaredFields()) {
+                    if (!Property.class.isAssignableFrom(f.getType()) ||
+                        Modifier.isStatic(f.getModifiers()) ||
+                        f.isAnnotationPresent(Preserve.class) // Moved to the new instance, must not be unbound
+                    ) continue;
+                    try {
+                        f.setAccessible(true);
+                        bound.add(LOOKUP.unreflectGetter(f));
+                    } catch (Exception ex) {
+                        Logger.debug("Field {} is not accessible, it will not be unbound: {}", f, ex.getMessage());
+                    }
+                }
+            }
+        }
+        this.bound = List.copyOf(bound);
+        this.dependencies = annotation != null ? Set.of(annotation.dependencies()) : Set.of();
+        this.resourcesMatcher = annotation != null && !annotation.resources().isBlank()
+            ? Utils.toPathMatcher(annotation.resources())
+            : null;
+    }
+
+    //================================================================================
+    // Static Methods
+    //================================================================================
+
+    /// @return the cached metadata for the given class, computing it if needed
+    static ClassMetadata of(Class<?> klass) {
+        return CACHE.get(klass);
+    }
+
+    /// Discards the cached metadata for the given class, the next call to [#of(Class)] will compute it again.
+    static void invalidate(Class<?> klass) {
+        CACHE.remove(klass);
+    }
+
+    private static boolean isUserClass(Class<?> c, Module module) {
+        return c != null && c.getModule() == module && !c.getName().startsWith("javafx.");
+    }
+
+    private static MethodHandle unreflect(Method m, MethodType type) {
+        try {
+            m.setAccessible(true);
+            MethodHandle handle = LOOKUP.unreflect(m);
+            if (Modifier.isStatic(m.getModifiers())) {
+                handle = MethodHandles.dropArguments(handle, 0, Node.class);
+            }
+            return handle.asType(type);
+        } catch (Exception ex) {
+            // Metadata is also computed when registering new instances, failing here would break the node's constructor
+            Logger.error(ex, "Invalid method {}, it will be ignored", m);
+            return null;
+        }
+    }
+
+    //================================================================================
+    // Methods
+    //================================================================================
+
+    /// Creates a new instance by either invoking the [Factory] method on the given node, or the no-args constructor.
+    ///
+    /// @throws ReflectiveOperationException if there is no factory and the constructor could not be found or accessed
+    /// (e.g., the package is not exported/opened), with the original cause
+    Node newInstance(Node node) throws ReflectiveOperationException {
+        try {
+            if (factory != null) return (Node) factory.invokeExact(node);
+            if (constructor != null) return (Node) constructor.invokeExact();
+        } catch (Throwable ex) {
+            throw new InvocationTargetException(ex);
+        }
+        if (constructorError != null) throw constructorError;
+        throw new NoSuchMethodException(klass.getName() + ".<init>()");
+    }
+
+    /// Invokes the [SwapStrategy] method on the old node with the new one as argument.
+    ///
+    /// @throws IllegalStateException if the class has no strategy, check with [#hasStrategy()] first
+    void swap(Node oldNode, Node newNode) throws ReflectiveOperationException {
+        if (strategy == null) throw new IllegalStateException("Class " + klass.getName() + " has no swap strategy");
+        try {
+            strategy.invokeExact(oldNode, newNode);
+        } catch (Throwable ex) {
+            throw new InvocationTargetException(ex);
+        }
+    }
+
+    /// Copies the values of all the fields marked by [Preserve] from the old node to the new one.
+    ///
+    /// Fields are only transferred if the new node is an instance of the class which declares them.
+    void transferPreserved(Node oldNode, Node newNode) {
+        for (PreservedField pf : preserved) {
+            if (!pf.field().getDeclaringClass().isInstance(newNode)) continue;
+            try {
+                pf.setter().invoke(newNode, pf.getter().invoke(oldNode));
+            } catch (Throwable ex) {
+                Logger.error(ex, "Could not preserve field {}", pf.field());
+            }
+        }
+    }
+
+    /// Releases the resources of a node which has been replaced: invokes the [Dispose] method (if any), then unbinds the
+    /// properties held by its fields if [HotSwappable#unbind()] is enabled.
+    ///
+    /// Errors are logged and never propagated, since the swap already succeeded at this point.
+    void dispose(Node oldNode) {
+        if (dispose != null) {
+            try {
+                dispose.invokeExact(oldNode);
+            } catch (Throwable ex) {
+                Logger.error(ex, "Failed to dispose node: {}", oldNode);
+            }
+        }
+        for (MethodHandle getter : bound) {
+            try {
+                if (getter.invoke(oldNode) instanceof Property<?> p && p.isBound()) p.unbind();
+            } catch (Throwable ex) {
+                Logger.error(ex, "Failed to unbind property of node: {}", oldNode);
+            }
+        }
+    }
+
+    /// @return whether [#dispose(Node)] has anything to do
+    boolean hasDispose() {
+        return dispose != null || !bound.isEmpty();
+    }
+
+    boolean hasPreserved() {
+        return !preserved.isEmpty();
+    }
+
+    boolean hasStrategy() {
+        return strategy != null;
+    }
+
+    /// @return the [HotSwappable] annotation on the class, or `null` if not present
+    HotSwappable annotation() {
+        return annotation;
+    }
+
+    /// @return whether new instances can be created off the FX thread, see [HotSwappable#concurrent()]
+    boolean isConcurrent() {
+        return annotation != null && annotation.concurrent();
+    }
+
+    /// @return whether new instances should be pre-warmed before being swapped in, see [HotSwappable#prewarm()]
+    boolean isPrewarm() {
+        return annotation != null && annotation.prewarm();
+    }
+
+    /// @return the dependencies specified by [HotSwappable#dependencies()], empty if none
+    Set<Class<?>> dependencies() {
+        return dependencies;
+    }
+
+    /// @return the raw expression specified by [HotSwappable#resources()], empty if none
+    String resources() {
+        return annotation != null ? annotation.resources() : "";
+    }
+
+    /// @return the [PathMatcher] for [HotSwappable#resources()], `null` if none
+    PathMatcher resourcesMatcher() {
+        return resourcesMatcher;
+    }
+
+    //================================================================================
+    // Inner Classes
+    //================================================================================
+
+    private record PreservedField(Field field, MethodHandle getter, MethodHandle setter) {}
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2026 Parisi Alessandro - alessandro.parisi406@gmail.com
+ * This file is part of HotSwapFX (https://github.com/palexdev/HotSwapFX)
+ *
+ * HotSwapFX is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * HotSwapFX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with HotSwapFX. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.palexdev.hotswapfx.core;
+
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.List;
+
+import javafx.beans.value.ObservableValue;
+import javafx.scene.Node;
+import javafx.scene.control.*;
+import org.tinylog.Logger;
+
+/// Utilities for JavaFX controls (`javafx.controls` module) which the hot swap system handles in special ways.
+///
+/// The module is optional for HotSwapFX, every method here checks [#AVAILABLE] before touching any of its classes.
+final class ControlsSupport {
+
+    //================================================================================
+    // Static Properties
+    //================================================================================
+
+    static final boolean AVAILABLE = isAvailable();
+
+    //================================================================================
+    // Constructors
+    //================================================================================
+
+    private ControlsSupport() {}
+
+    //================================================================================
+    // Static Methods
+    //================================================================================
+
+    /// @return whether the given node is a cell of one of JavaFX's virtualized controls
+    static boolean isCell(Node node) {
+        return AVAILABLE && ownerProperty(node) != null;
+    }
+
+    /// @return the property holding the virtualized control which owns the given cell, `null` if the node is not a
+    /// cell or the control is not supported
+    static ObservableValue<? extends Node> ownerProperty(Node node) {
+        if (!AVAILABLE) return null;
+        return switch (node) {
+            case ListCell<?> c -> c.listViewProperty();
+            case TreeCell<?> c -> c.treeViewProperty();
+            case TableRow<?> c -> c.tableViewProperty();
+            case TableCell<?, ?> c -> c.tableViewProperty();
+            case TreeTableRow<?> c -> c.treeTableViewProperty();
+            case TreeTableCell<?, ?> c -> c.treeTableViewProperty();
+            default -> null;
+        };
+    }
+
+    /// Asks the given virtualized control to recreate all its cells.
+    ///
+    /// @return whether the control is supported
+    static boolean refresh(Node owner) {
+        if (!AVAILABLE) return false;
+        switch (owner) {
+            case ListView<?> lv -> lv.refresh();
+            case TreeView<?> tv -> tv.refresh();
+            case TableView<?> tv -> tv.refresh();
+            case TreeTableView<?> ttv -> ttv.refresh();
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /// @return whether the given class is an implementation of [Skin]
+    static boolean isSkin(Class<?> klass) {
+        return AVAILABLE && Skin.class.isAssignableFrom(klass);
+    }
+
+    /// Reinstalls the skin of every control in the showing windows whose current skin is an instance of the given class.
+    ///
+    /// @return the number of affected controls
+    /// @see #reinstallSkin(Control, Class)
+    static int reinstallSkins(Class<?> skinClass) {
+        if (!AVAILABLE) return 0;
+        List<Control> controls = new ArrayList<>();
+        Utils.forEachNode(node -> {
+            if (node instanceof Control c && skinClass.isInstance(c.getSkin())) controls.add(c);
+        });
+        controls.forEach(c -> reinstallSkin(c, skinClass));
+        return controls.size();
+    }
+
+    /// Replaces the skin of the given control with a new instance of the given class, keeping the control, its
+    /// properties and its position in the scenegraph intact.
+    ///
+    /// The new skin is created through a public constructor of the skin class accepting the control, so that skins set
+    /// in code are preserved. If there is none, the current skin is removed and CSS is applied again, which makes the
+    /// control create its default skin (or the one specified by `-fx-skin`).
+    static void reinstallSkin(Control control, Class<?> skinClass) {
+        for (Constructor<?> c : skinClass.getConstructors()) {
+            Class<?>[] params = c.getParameterTypes();
+            if (params.length != 1 || !params[0].isInstance(control)) continue;
+            try {
+                control.setSkin((Skin<?>) c.newInstance(control));
+                return;
+            } catch (ReflectiveOperationException ex) {
+                Logger.warn("Could not create skin {} for control {}, keeping the current one: {}", skinClass.getName(), control, ex);
+                return;
+            }
+        }
+
+        control.setSkin(null);
+        control.applyCss();
+        Skin<?> skin = control.getSkin();
+        if (skin == null) {
+            Logger.warn("Control {} did not create a new skin", control);
+        } else if (!skinClass.isInstance(skin)) {
+            Logger.warn("Control {} created a skin of type {} rather than {}", control, skin.getClass().getName(), skinClass.getName());
+        }
+    }
+
+    private static boolean isAvailable() {
+        try {
+            Class.forName("javafx.scene.control.Control", false, ControlsSupport.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError _) {
+            return false;
+        }
+    }
+}
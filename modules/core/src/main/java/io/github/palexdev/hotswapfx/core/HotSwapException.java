@@ -22,4 +22,8 @@ public class HotSwapException extends RuntimeException {
     public HotSwapException(String message) {
         super(message);
     }
+
+    public HotSwapException(String message, Throwable cause) {
+        super(message, cause);
+    }
 }
@@ -21,9 +21,17 @@ package io.github.palexdev.hotswapfx.core;
 import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
 import java.nio.file.Path;
+import java.nio.file.PathMatcher;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 import io.github.palexdev.hotswapfx.core.annotations.HotSwappable;
+import io.github.palexdev.hotswapfx.core.annotations.SwapStrategy;
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
 import javafx.scene.Node;
 import org.tinylog.Logger;
 
@@ -32,17 +40,25 @@ import static java.util.Optional.ofNullable;
 /// Registry that keeps track of all the nodes objects which type is marked by [HotSwappable], as well as their dependencies.
 ///
 /// Uses [WeakReferences][WeakReference] and a [ReferenceQueue] to avoid memory leaks.
+///
+/// The registry is thread-safe: nodes can be constructed (and thus registered) on any thread, while the service queries
+/// it concurrently. Instances are stored in per-class concurrent buckets, so registrations of different classes never
+/// contend with each other, and there's no global lock.
 class HotSwapRegistry {
 
     //================================================================================
     // Properties
     //================================================================================
 
-    private final Map<Class<?>, Set<TrackedRef>> registry = new HashMap<>();
+    private final Map<Class<?>, Set<TrackedRef>> registry = new ConcurrentHashMap<>();
     private final ReferenceQueue<Node> refQueue = new ReferenceQueue<>();
 
-    private final Map<Class<?>, Set<Class<?>>> deps = new HashMap<>();
-    private final Map<Class<?>, ServiceHook<?>> resHooks = new HashMap<>();
+    private final Map<Class<?>, Set<Class<?>>> deps = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Set<Class<?>>> dependents = new ConcurrentHashMap<>();
+    private final Map<Class<?>, ServiceHook<?>> resHooks = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Set<Node>> owners = new ConcurrentHashMap<>();
+    private final Set<Node> stale = Collections.newSetFromMap(Collections.synchronizedMap(new WeakHashMap<>()));
+    private final LeakDetector leakDetector = new LeakDetector();
 
     //================================================================================
     // Methods
@@ -50,43 +66,85 @@ class HotSwapRegistry {
 
     /// Adds the given node to the tracked references.
     ///
-    /// If the type was not registered before, a new entry is created.
+    /// If the type was not registered before, a new entry is created and its class-level information is processed
+    /// (see [#refresh(Class)]). After that, registering an instance is just a weak reference insert.
     ///
-    /// If the type marked by [HotSwappable] has dependencies, those are also registered.
+    /// Cells of JavaFX's virtualized controls (e.g., `ListCell`, `TableCell`) are not tracked individually unless their
+    /// type defines a custom [SwapStrategy]. Since such controls pool and recycle their cells, the registry tracks the
+    /// owning controls instead (see [#getOwners(Class)]), so that the service can just ask them to recreate their cells.
     public void register(Node node) {
         purgeStale();
         Class<? extends Node> klass = node.getClass();
-        registry.computeIfAbsent(klass, _ -> new HashSet<>())
-            .add(new TrackedRef(node, refQueue));
+        Set<TrackedRef> refs = registry.get(klass);
+        if (refs == null) {
+            refs = registry.computeIfAbsent(klass, k -> {
+                refresh(k);
+                return ConcurrentHashMap.newKeySet();
+            });
+        }
+        if (ControlsSupport.isCell(node) && !ClassMetadata.of(klass).hasStrategy()) {
+            trackOwner(klass, node);
+            return;
+        }
+        refs.add(new TrackedRef(node, refQueue));
+    }
+
+    /// Waits for the given cell to be assigned to a virtualized control, and then tracks the control (only once) for
+    /// the given type.
+    private void trackOwner(Class<?> klass, Node cell) {
+        ObservableValue<? extends Node> ownerProperty = ControlsSupport.ownerProperty(cell);
+        Consumer<Node> track = owner -> owners.computeIfAbsent(
+            klass, _ -> Collections.newSetFromMap(Collections.synchronizedMap(new WeakHashMap<>()))
+        ).add(owner);
+        if (ownerProperty.getValue() != null) {
+            track.accept(ownerProperty.getValue());
+            return;
+        }
+        ownerProperty.addListener(new ChangeListener<Node>() {
+            @Override
+            public void changed(ObservableValue<? extends Node> observable, Node oldValue, Node newValue) {
+                if (newValue == null) return;
+                observable.removeListener(this);
+                track.accept(newValue);
+            }
+        });
+    }
+
+    /// Processes the class-level information of the given type, as described by its [ClassMetadata]:
+    /// - If the type marked by [HotSwappable] has dependencies, those are registered
+    /// - If the type marked by [HotSwappable] specifies a resources pattern, a hook is registered on the service to
+    ///   reload the type when a matching resource changes
+    ///
+    /// This is done automatically the first time an instance of the type is registered, and must be done again every
+    /// time the class is redefined (as the annotation may have changed).
+    public void refresh(Class<?> klass) {
+        ClassMetadata metadata = ClassMetadata.of(klass);
 
         // Register dependencies
-        HotSwappable annotation = klass.getAnnotation(HotSwappable.class);
-        ofNullable(annotation).map(HotSwappable::dependencies)
-            .filter(deps -> deps.length != 0)
-            .ifPresentOrElse(
-                deps -> this.deps.put(klass, Set.of(deps)),
-                () -> deps.remove(klass)
-            );
+        updateDependencies(klass, metadata.dependencies());
 
         // Resources hook
-        ServiceHook<Path> resHook = ofNullable(annotation).map(HotSwappable::resources)
-            .filter(res -> !res.isBlank())
-            .map(Utils::toPathMatcher)
-            .map(matcher -> (ServiceHook<Path>) p -> {
-                if (matcher.matches(p.getFileName())) {
-                    Logger.info("Reloading class {} on matched pattern: {}", klass, annotation.resources());
-                    HotSwapService.instance().swapNodes(klass);
-                }
-            })
-            .orElse(null);
-        if (resHooks.containsKey(klass)) { // unregister previous hook
-            HotSwapService.instance().removeHook(resHooks.get(klass));
-        }
-        if (resHook != null) { // register new hook
-            HotSwapService.instance().earlyHook(resHook);
-            resHooks.put(klass, resHook);
-        }
+        PathMatcher matcher = metadata.resourcesMatcher();
+        ServiceHook<Path> resHook = matcher == null ? null : p -> {
+            if (matcher.matches(p.getFileName())) {
+                Logger.info("Reloading class {} on matched pattern: {}", klass, metadata.resources());
+                HotSwapService.instance().swapNodes(klass);
+            }
+        };
+        resHooks.compute(klass, (_, prev) -> {
+            if (prev != null) { // unregister previous hook
+                HotSwapService.instance().removeHook(prev);
+            }
+            if (resHook != null) { // register new hook
+                HotSwapService.instance().earlyHook(resHook);
+            }
+            return resHook;
+        });
+    }
 
+    /// @return whether instances of the given class have ever been registered
+    public boolean isTracked(Class<?> klass) {
+        return registry.containsKey(klass);
     }
 
     /// @return all the dependencies of the given class
@@ -94,22 +152,114 @@ class HotSwapRegistry {
         return deps.getOrDefault(klass, Collections.emptySet());
     }
 
-    /// @return all the classes which depend on the given one
+    /// @return all the classes which directly depend on the given one
     public Set<Class<?>> dependsOn(Class<?> klass) {
-        Set<Class<?>> deps = new HashSet<>();
-        this.deps.forEach((k, v) -> {
-            if (v.contains(klass)) deps.add(k);
-        });
-        return deps;
+        return Collections.unmodifiableSet(dependents.getOrDefault(klass, Collections.emptySet()));
+    }
+
+    /// Resolves all the classes affected by a change to the given ones, following the dependencies transitively
+    /// (if `A` depends on `B` which depends on `C`, a change to `C` affects both `B` and `A`).
+    ///
+    /// The result is topologically ordered, meaning that a class always comes after the classes it depends on.
+    /// Dependency cycles are detected and reported; the classes involved are appended at the end in discovery order.
+    ///
+    /// Thanks to the reverse index, the cost is proportional to the number of affected classes rather than the number of
+    /// registered ones.
+    public List<Class<?>> affectedBy(Collection<Class<?>> changed) {
+        // Collect the affected classes
+        Set<Class<?>> affected = new LinkedHashSet<>(changed);
+        Deque<Class<?>> queue = new ArrayDeque<>(changed);
+        while (!queue.isEmpty()) {
+            for (Class<?> dependent : dependsOn(queue.poll())) {
+                if (affected.add(dependent)) queue.add(dependent);
+            }
+        }
+
+        // Sort them (Kahn), only dependencies within the affected set count
+        Map<Class<?>, Integer> inDegree = new HashMap<>();
+        for (Class<?> klass : affected) {
+            int degree = 0;
+            for (Class<?> dep : dependenciesOf(klass)) {
+                if (dep != klass && affected.contains(dep)) degree++;
+            }
+            inDegree.put(klass, degree);
+        }
+
+        List<Class<?>> sorted = new ArrayList<>(affected.size());
+        affected.stream().filter(k -> inDegree.get(k) == 0).forEach(queue::add);
+        while (!queue.isEmpty()) {
+            Class<?> klass = queue.poll();
+            sorted.add(klass);
+            for (Class<?> dependent : dependsOn(klass)) {
+                if (dependent != klass && inDegree.merge(dependent, -1, Integer::sum) == 0) queue.add(dependent);
+            }
+        }
+
+        if (sorted.size() < affected.size()) {
+            List<Class<?>> cyclic = affected.stream().filter(k -> inDegree.get(k) > 0).toList();
+            Logger.warn("Dependency cycle detected between: {}", cyclic);
+            sorted.addAll(cyclic);
+        }
+        return sorted;
+    }
+
+    /// Replaces the dependencies of the given class, keeping the reverse index in sync.
+    private void updateDependencies(Class<?> klass, Set<Class<?>> newDeps) {
+        synchronized (dependents) {
+            Set<Class<?>> oldDeps = newDeps.isEmpty() ? deps.remove(klass) : deps.put(klass, newDeps);
+            if (oldDeps != null) {
+                oldDeps.forEach(d -> ofNullable(dependents.get(d)).ifPresent(s -> s.remove(klass)));
+            }
+            newDeps.forEach(d -> dependents.computeIfAbsent(d, _ -> ConcurrentHashMap.newKeySet()).add(klass));
+        }
     }
 
     /// Removes the given node from the tracked references.
     ///
     /// This is crucial when swapping a node in the scenegraph because the old object removed from it must not be tracked anymore.
-    /// The new node is registered automatically.
+    /// The new node is registered automatically. The old one is then watched by the [LeakDetector].
     public void unregister(Node node) {
         var refs = registry.get(node.getClass());
-        if (refs != null) refs.removeIf(r -> r.get() == node);
+        if (refs != null && refs.removeIf(r -> r.get() == node)) leakDetector.track(node);
+    }
+
+    public LeakDetector leakDetector() {
+        return leakDetector;
+    }
+
+    /// Marks the given node as stale, meaning that it should be replaced but can't be now because it is detached from
+    /// the scenegraph. As soon as the node is attached to a parent or scene, the given callback is invoked (on the FX
+    /// thread) to perform the replacement.
+    ///
+    /// Nodes that are already marked are ignored. _Must be called on the FX thread!_
+    public void markStale(Node node, Consumer<Node> onAttach) {
+        if (!stale.add(node)) return;
+        InvalidationListener listener = new InvalidationListener() {
+            @Override
+            public void invalidated(Observable o) {
+                if (node.getParent() == null && node.getScene() == null) return;
+                node.parentProperty().removeListener(this);
+                node.sceneProperty().removeListener(this);
+                stale.remove(node);
+                onAttach.accept(node);
+            }
+        };
+        node.parentProperty().addListener(listener);
+        node.sceneProperty().addListener(listener);
+    }
+
+    /// @return whether the given node is waiting to be attached to be swapped, see [#markStale(Node, Consumer)]
+    public boolean isStale(Node node) {
+        return stale.contains(node);
+    }
+
+    /// @return all the virtualized controls which use cells of the given type
+    public List<Node> getOwners(Class<?> klass) {
+        Set<Node> set = owners.get(klass);
+        if (set == null) return List.of();
+        synchronized (set) {
+            return set.stream().filter(Objects::nonNull).toList();
+        }
     }
 
     /// @return all the tracked instances for the given class
@@ -123,6 +273,8 @@ class HotSwapRegistry {
     }
 
     /// Removes GCed references from the registry.
+    ///
+    /// Safe to call from multiple threads at once, each reference is polled by only one of them.
     private void purgeStale() {
         TrackedRef unalive;
         while ((unalive = (TrackedRef) refQueue.poll()) != null) {
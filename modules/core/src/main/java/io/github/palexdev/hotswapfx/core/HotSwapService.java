@@ -18,14 +18,16 @@
 
 package io.github.palexdev.hotswapfx.core;
 
-import java.lang.reflect.Method;
 import java.nio.file.Path;
 import java.util.*;
 
 import io.github.palexdev.hotswapfx.core.ServiceHook.HookType;
 import io.github.palexdev.hotswapfx.core.ServiceHook.Hooks;
 import io.github.palexdev.hotswapfx.core.annotations.Factory;
+import io.github.palexdev.hotswapfx.core.annotations.HotSwappable;
+import io.github.palexdev.hotswapfx.core.annotations.Preserve;
 import io.github.palexdev.hotswapfx.core.annotations.SwapStrategy;
+import javafx.application.Platform;
 import javafx.scene.Node;
 import org.tinylog.Logger;
 
@@ -34,6 +36,9 @@ import static java.util.Optional.ofNullable;
 /// Core class that represents the hotswap service. Responsible for instantiating new nodes and swapping them in
 /// the scenegraph.
 ///
+/// Stylesheets changes are handled separately by reloading them in place, see [StylesheetReloader]. The same goes for
+/// images loaded through the [ImageCache].
+///
 /// @see SwapStrategy
 /// @see Factory
 public class HotSwapService {
@@ -59,54 +64,93 @@ public class HotSwapService {
     // Constructors
     //================================================================================
 
-    private HotSwapService() {}
+    private HotSwapService() {
+        if (Boolean.parseBoolean(System.getProperty("hotswapfx.reloadStylesheets", "true"))) {
+            earlyHook(new StylesheetReloader());
+        }
+        earlyHook(ImageCache.instance()::onFileChanged);
+    }
 
     //================================================================================
     // Methods
     //================================================================================
 
-    public void swapNodes(Class<?> klass) {
-        notifyLateHooks(klass);
+    /// Replaces all the tracked instances of the given class with new ones.
+    ///
+    /// Convenience for [#swapNodes(Collection)] with a single class.
+    public SwapReport swapNodes(Class<?> klass) {
+        return swapNodes(List.of(klass));
+    }
 
-        if (!Node.class.isAssignableFrom(klass)) {
-            Logger.trace("Class {} is not a Node, skipping...", klass.getName());
-            return;
-        }
+    /// Replaces all the tracked instances of the given classes with new ones, blocking until done.
+    ///
+    /// When called on the FX thread, the whole plan is executed immediately, otherwise this waits for the job returned
+    /// by [#swapNodesAsync(Collection)].
+    ///
+    /// @return a [SwapReport] with the outcome of every instance
+    public SwapReport swapNodes(Collection<Class<?>> classes) {
+        SwapPlan plan = plan(classes);
+        if (plan.isEmpty()) return SwapReport.EMPTY;
+        if (Platform.isFxApplicationThread()) return SwapScheduler.runNow(plan);
+        return SwapScheduler.schedule(plan).future().join();
+    }
 
-        Logger.debug("Swapping instances of: {}", klass.getName());
-        List<Node> instances = registry.getInstances(klass);
-        Logger.trace("Found {} instances", instances.size());
-        for (Node node : instances) {
-            try {
-                Node newNode = Utils.waitForFxAndGet(() -> Utils.newInstanceOf(node), null);
-                if (newNode == null) throw new HotSwapException("New node is null, aborting replace...");
-                Logger.debug("Instantiated new node: {}, replacing...", newNode);
-
-                // Try 1: use strategy if available
-                Method strategy = Arrays.stream(klass.getDeclaredMethods())
-                    .filter(m -> m.isAnnotationPresent(SwapStrategy.class))
-                    .findFirst()
-                    .orElse(null);
-                if (strategy != null) {
-                    Utils.waitForFX(() -> {
-                        strategy.setAccessible(true);
-                        strategy.invoke(node, newNode);
-                        registry.unregister(node);
-                    });
-                    continue;
-                }
-
-                // Try 2: try default strategy
-                boolean swapped = Utils.waitForFxAndGet(() -> SwapStrategy.Default.swapInScenegraph(node, newNode), false);
-                if (swapped) {
-                    registry.unregister(node);
-                } else {
-                    throw new HotSwapException("Node is either detached from JavaFX Scenegraph or new one could not be attached");
-                }
-            } catch (Exception ex) {
-                Logger.error(ex, "Could not replace node: {}", node);
+    /// Replaces all the tracked instances of the given classes with new ones.
+    ///
+    /// The swap plan (the instances of every class and the [SwapStrategy] to use for each) is built upfront, then
+    /// instantiation and replacement are executed on the FX thread by the [SwapScheduler]. Unless the plan is huge, this
+    /// happens in a single pass, so that a reload that involves many classes costs a single layout/CSS pass rather than
+    /// one per class. Instances whose ancestor is also part of the plan are not swapped, see [SwapPlan]. Types that allow
+    /// it have their new instances created in parallel, off the FX thread, see [HotSwappable#concurrent()]. Fields marked
+    /// by [Preserve] are carried over from the old instances to the new ones before the swap.
+    ///
+    /// Reloaded classes which are `Skin` implementations are not swapped. Instead, the controls that use them get a new
+    /// skin instance, which is much cheaper and preserves the controls' state.
+    ///
+    /// @return a [SwapJob] to track the progress and completion of the operation
+    public SwapJob swapNodesAsync(Collection<Class<?>> classes) {
+        SwapPlan plan = plan(classes);
+        if (plan.isEmpty()) return SwapJob.completed(SwapReport.EMPTY);
+        return SwapScheduler.schedule(plan);
+    }
+
+    /// Builds the [SwapPlan] for the given classes, notifying the late hooks in the process.
+    private SwapPlan plan(Collection<Class<?>> classes) {
+        registry.leakDetector().check();
+        SwapPlan plan = new SwapPlan(registry);
+        for (Class<?> klass : classes) {
+            notifyLateHooks(klass);
+
+            if (ControlsSupport.isSkin(klass)) {
+                Logger.debug("Reinstalling skins of type: {}", klass.getName());
+                plan.reskin(klass);
+                continue;
             }
+
+            if (!Node.class.isAssignableFrom(klass)) {
+                Logger.trace("Class {} is not a Node, skipping...", klass.getName());
+                continue;
+            }
+
+            Logger.debug("Swapping instances of: {}", klass.getName());
+            List<Node> instances = registry.getInstances(klass);
+            List<Node> owners = registry.getOwners(klass);
+            Logger.trace("Found {} instances and {} virtualized owners", instances.size(), owners.size());
+            owners.forEach(plan::refresh);
+            if (instances.isEmpty()) continue;
+
+            ClassMetadata metadata = ClassMetadata.of(klass);
+            instances.forEach(node -> plan.add(node, metadata));
         }
+        return plan;
+    }
+
+    /// Discards any cached information about the given class.
+    ///
+    /// _Must be called every time the class is redefined!_
+    public void invalidate(Class<?> klass) {
+        ClassMetadata.invalidate(klass);
+        if (registry.isTracked(klass)) registry.refresh(klass);
     }
 
     /// Delegate of [HotSwapRegistry#register(Node)]
@@ -124,34 +168,64 @@ public class HotSwapService {
         return registry.dependsOn(klass);
     }
 
+    /// Delegate of [HotSwapRegistry#affectedBy(Collection)]
+    public List<Class<?>> affectedBy(Collection<Class<?>> classes) {
+        return registry.affectedBy(classes);
+    }
+
+    /// @return the [LeakDetector] watching the instances swapped out by the service
+    public LeakDetector leakDetector() {
+        return registry.leakDetector();
+    }
+
     /// Delegate of [HotSwapRegistry#trackedClasses()]
     public Set<Class<?>> registeredClasses() {
         return registry.trackedClasses();
     }
 
+    /// Notifies the late hooks that the given class is about to be reloaded.
+    ///
+    /// This is done for every class passed to [#swapNodes(Collection)] and [#swapNodesAsync(Collection)]. Callers
+    /// which redefine a class but decide not to swap its instances must call this instead.
     @SuppressWarnings("unchecked")
-    private void notifyLateHooks(Class<?> klass) {
-        ofNullable(hooksMap.get(HookType.ON_CLASS))
+    public void notifyLateHooks(Class<?> klass) {
+        ofNullable(hooks().get(HookType.ON_CLASS))
             .ifPresent(hooks -> hooks.forEach(h -> ((ServiceHook<Class<?>>) h).onEvent(klass)));
     }
 
     public HotSwapService earlyHook(ServiceHook<Path> hook) {
-        hooksMap.computeIfAbsent(HookType.ON_FILE, _ -> new Hooks()).add(hook);
+        synchronized (hooksMap) {
+            hooksMap.computeIfAbsent(HookType.ON_FILE, _ -> new Hooks()).add(hook);
+        }
         return this;
     }
 
     public HotSwapService lateHook(ServiceHook<Class<?>> hook) {
-        hooksMap.computeIfAbsent(HookType.ON_CLASS, _ -> new Hooks()).add(hook);
+        synchronized (hooksMap) {
+            hooksMap.computeIfAbsent(HookType.ON_CLASS, _ -> new Hooks()).add(hook);
+        }
         return this;
     }
 
     public HotSwapService removeHook(ServiceHook<?> hook) {
-        hooksMap.values().forEach(hooks -> hooks.remove(hook));
+        synchronized (hooksMap) {
+            hooksMap.values().forEach(hooks -> hooks.remove(hook));
+        }
         hook.dispose();
         return this;
     }
 
+    /// @return a snapshot of the registered hooks. Since hooks can be added and removed from any thread (for example,
+    /// when nodes are registered), the returned map and sets are copies which are safe to iterate
     public Map<HookType, Hooks> hooks() {
-        return Collections.unmodifiableMap(hooksMap);
+        synchronized (hooksMap) {
+            Map<HookType, Hooks> copy = new EnumMap<>(HookType.class);
+            hooksMap.forEach((type, hooks) -> {
+                Hooks hCopy = new Hooks();
+                hCopy.addAll(hooks);
+                copy.put(type, hCopy);
+            });
+            return Collections.unmodifiableMap(copy);
+        }
     }
 }
@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2026 Parisi Alessandro - alessandro.parisi406@gmail.com
+ * This file is part of HotSwapFX (https://github.com/palexdev/HotSwapFX)
+ *
+ * HotSwapFX is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * HotSwapFX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with HotSwapFX. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.palexdev.hotswapfx.core;
+
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import io.github.palexdev.hotswapfx.core.ServiceHook.HookType;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import org.tinylog.Logger;
+
+/// A cache of decoded [Images][Image], keyed by URL, requested size and decoder, which is aware of the hot swap system.
+///
+/// Since the cache is independent of the nodes that use it, it survives swaps: new instances of a view get the already
+/// decoded images rather than decoding them again.
+///
+/// When a file on the classpath changes ([early hook][HookType#ON_FILE], installed by [HotSwapService]), the entries
+/// pointing to that file are decoded again, and every [ImageView] in the showing windows which displays an old image
+/// is updated in place. This way, editing an asset costs one decode rather than a full view rebuild.
+///
+/// _Only images loaded from `file:` URLs can be matched to changed files, which is the case when running from the build
+/// output._
+public class ImageCache {
+
+    //================================================================================
+    // Singleton
+    //================================================================================
+
+    private static final ImageCache INSTANCE = new ImageCache();
+
+    public static ImageCache instance() {
+        return INSTANCE;
+    }
+
+    //================================================================================
+    // Properties
+    //================================================================================
+
+    private final Map<Key, Entry> cache = new ConcurrentHashMap<>();
+
+    //================================================================================
+    // Constructors
+    //================================================================================
+
+    private ImageCache() {}
+
+    //================================================================================
+    // Methods
+    //================================================================================
+
+    /// Retrieves the image at the given URL at its original size, decoding it if not cached.
+    public Image get(String url) {
+        return get(url, 0, 0);
+    }
+
+    /// Retrieves the image at the given URL scaled to fit the requested size (preserving the ratio), decoding it if not
+    /// cached.
+    ///
+    /// @see Image#Image(String, double, double, boolean, boolean)
+    public Image get(String url, double requestedWidth, double requestedHeight) {
+        Key key = new Key(url, requestedWidth, requestedHeight, null);
+        return get(key, u -> new Image(u, requestedWidth, requestedHeight, true, true));
+    }
+
+    /// Retrieves the image at the given URL and requested size, decoding it with the given function if not cached.
+    ///
+    /// This is useful when images need some processing before being displayed. The decoder is stored alongside the
+    /// image so that it can be used again when the file changes. If it returns `null` or fails, nothing is cached.
+    ///
+    /// Decoders are part of the key and compared by identity, so that images processed differently are never mixed up.
+    /// To share images across calls (and swaps), the decoder must be the same instance every time, e.g., a constant.
+    public Image get(String url, double requestedWidth, double requestedHeight, Function<String, Image> decoder) {
+        return get(new Key(url, requestedWidth, requestedHeight, Objects.requireNonNull(decoder)), decoder);
+    }
+
+    private Image get(Key key, Function<String, Image> decoder) {
+        Entry entry = cache.get(key);
+        if (entry != null) return entry.image();
+
+        Image image = decode(key.url(), decoder);
+        if (image == null) return null;
+        entry = cache.putIfAbsent(key, new Entry(image, decoder));
+        return entry != null ? entry.image() : image;
+    }
+
+    /// Removes all the entries for the given URL.
+    public void invalidate(String url) {
+        cache.keySet().removeIf(k -> k.url().equals(url));
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    /// Decodes again all the entries which point to the given file and updates the [ImageViews][ImageView] displaying
+    /// the old images.
+    void onFileChanged(Path path) {
+        Map<Image, Image> replaced = new IdentityHashMap<>();
+        cache.replaceAll((key, entry) -> {
+            if (!Utils.pointsTo(key.url(), path)) return entry;
+            Image image = decode(key.url(), entry.decoder());
+            if (image == null) return entry;
+            replaced.put(entry.image(), image);
+            return new Entry(image, entry.decoder());
+        });
+        if (replaced.isEmpty()) return;
+
+        Utils.waitForFX(() -> {
+            int[] updated = {0};
+            Utils.forEachNode(node -> {
+                if (node instanceof ImageView iv && !iv.imageProperty().isBound()) {
+                    Image image = replaced.get(iv.getImage());
+                    if (image != null) {
+                        iv.setImage(image);
+                        updated[0]++;
+                    }
+                }
+            });
+            Logger.info("Reloaded image {}, updated {} views", path.getFileName(), updated[0]);
+        });
+    }
+
+    private Image decode(String url, Function<String, Image> decoder) {
+        try {
+            return decoder.apply(url);
+        } catch (Exception ex) {
+            Logger.error(ex, "Failed to decode image: {}", url);
+            return null;
+        }
+    }
+
+    //================================================================================
+    // Inner Classes
+    //================================================================================
+
+    /// @param decoder the custom decoder, `null` for the default one
+    private record Key(String url, double requestedWidth, double requestedHeight, Function<String, Image> decoder) {}
+
+    private record Entry(Image image, Function<String, Image> decoder) {}
+}
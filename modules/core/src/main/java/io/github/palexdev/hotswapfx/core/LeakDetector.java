@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2026 Parisi Alessandro - alessandro.parisi406@gmail.com
+ * This file is part of HotSwapFX (https://github.com/palexdev/HotSwapFX)
+ *
+ * HotSwapFX is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * HotSwapFX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with HotSwapFX. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.palexdev.hotswapfx.core;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javafx.scene.Node;
+import org.tinylog.Logger;
+
+/// Watches nodes which have been swapped out of the scenegraph to find out whether they are actually garbage collected.
+///
+/// Every replaced node is tracked with a [PhantomReference], which does not prevent its collection, along with the time
+/// of the swap and the number of GC cycles run by the JVM up to that moment. Only old generation (or full) cycles are
+/// counted, since young collections never reclaim nodes which lived long enough to be promoted. If the node is still
+/// reachable after a certain amount of such cycles (3 by default, configurable with the `hotswapfx.leakGcCycles` system
+/// property), it is considered leaked, typically by a listener or binding registered on a long-lived object (see
+/// [io.github.palexdev.hotswapfx.core.annotations.Dispose]).
+///
+/// Leaks are reported in the log at the beginning of every reload (each instance only once), and can be queried at any
+/// time with [#leaks()]. Setting the threshold to `0` or less disables the detector.
+public final class LeakDetector {
+
+    //================================================================================
+    // Properties
+    //================================================================================
+
+    private final int gcCycles = Integer.getInteger("hotswapfx.leakGcCycles", 3);
+    private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans().stream()
+        .filter(LeakDetector::isOldCollector)
+        .toList();
+    private final Set<SwappedRef> tracked = ConcurrentHashMap.newKeySet();
+    private final ReferenceQueue<Node> refQueue = new ReferenceQueue<>();
+
+    //================================================================================
+    // Constructors
+    //================================================================================
+
+    LeakDetector() {}
+
+    //================================================================================
+    // Methods
+    //================================================================================
+
+    /// Starts watching the given node, which has just been swapped out.
+    void track(Node node) {
+        if (!isEnabled()) return;
+        tracked.add(new SwappedRef(node, refQueue, System.nanoTime(), gcCount()));
+    }
+
+    /// Logs the instances that became leaks since the last check.
+    void check() {
+        if (!isEnabled()) return;
+        expunge();
+        long gcNow = gcCount();
+        Map<Class<?>, Integer> found = new LinkedHashMap<>();
+        for (SwappedRef ref : tracked) {
+            if (ref.reported || gcNow - ref.gcCount < gcCycles) continue;
+            ref.reported = true;
+            found.merge(ref.type, 1, Integer::sum);
+        }
+        found.forEach((type, count) -> Logger.warn(
+            "{} swapped out instance(s) of {} still reachable after {} GC cycles", count, type.getName(), gcCycles
+        ));
+    }
+
+    /// @return the swapped out instances still reachable after the configured amount of GC cycles, grouped by class.
+    /// The most leaking classes come first
+    public List<Leak> leaks() {
+        if (!isEnabled()) return List.of();
+        expunge();
+        long gcNow = gcCount();
+        long now = System.nanoTime();
+        Map<Class<?>, Leak> leaks = new HashMap<>();
+        for (SwappedRef ref : tracked) {
+            if (gcNow - ref.gcCount < gcCycles) continue;
+            Duration since = Duration.ofNanos(now - ref.swapTime);
+            leaks.merge(ref.type, new Leak(ref.type, 1, since), (a, b) -> new Leak(
+                a.type(), a.count() + 1, a.sinceSwap().compareTo(b.sinceSwap()) >= 0 ? a.sinceSwap() : b.sinceSwap()
+            ));
+        }
+        return leaks.values().stream()
+            .sorted(Comparator.comparingInt(Leak::count).reversed())
+            .toList();
+    }
+
+    /// @return the number of swapped out instances which are still being watched, leaked or not
+    public int pending() {
+        expunge();
+        return tracked.size();
+    }
+
+    public boolean isEnabled() {
+        return gcCycles > 0;
+    }
+
+    /// Removes the collected instances from the watched ones.
+    private void expunge() {
+        Reference<? extends Node> ref;
+        while ((ref = refQueue.poll()) != null) {
+            tracked.remove(ref);
+        }
+    }
+
+    /// Tells whether the given collector reclaims the old generation (or the whole heap), based on the names used by
+    /// the JVM's collectors. For example, `G1 Old Generation` and `G1 Concurrent GC` for G1, `PS MarkSweep` for
+    /// Parallel, `MarkSweepCompact` for Serial, `ZGC Major Cycles` for generational ZGC, `Shenandoah Cycles`. Young
+    /// collectors and the beans which count pauses rather than cycles are excluded.
+    private static boolean isOldCollector(GarbageCollectorMXBean gc) {
+        String name = gc.getName().toLowerCase(Locale.ROOT);
+        return !name.contains("young") &&
+               !name.contains("minor") &&
+               !name.contains("scavenge") &&
+               !name.contains("pauses") &&
+               !name.equals("copy") &&
+               !name.equals("parnew");
+    }
+
+    /// @return the total number of collections run by the old generation collectors of the JVM
+    private long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : collectors) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    //================================================================================
+    // Inner Classes
+    //================================================================================
+
+    /// A class of swapped out nodes that were not garbage collected.
+    ///
+    /// @param count     the number of leaked instances
+    /// @param sinceSwap the time elapsed since the oldest of them was swapped out
+    public record Leak(Class<?> type, int count, Duration sinceSwap) {}
+
+    private static class SwappedRef extends PhantomReference<Node> {
+        private final Class<?> type;
+        private final long swapTime;
+        private final long gcCount;
+        private volatile boolean reported = false;
+
+        SwappedRef(Node node, ReferenceQueue<Node> queue, long swapTime, long gcCount) {
+            super(node, queue);
+            this.type = node.getClass();
+            this.swapTime = swapTime;
+            this.gcCount = gcCount;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2026 Parisi Alessandro - alessandro.parisi406@gmail.com
+ * This file is part of HotSwapFX (https://github.com/palexdev/HotSwapFX)
+ *
+ * HotSwapFX is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * HotSwapFX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with HotSwapFX. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.palexdev.hotswapfx.core;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import io.github.palexdev.hotswapfx.core.ServiceHook.HookType;
+import io.github.palexdev.hotswapfx.core.annotations.HotSwappable;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.stage.Window;
+import org.tinylog.Logger;
+
+/// An [early hook][HookType#ON_FILE] which reloads stylesheets in place, without re-instantiating any node.
+///
+/// When a `.css` file changes, this looks for all the [Scenes][Scene] and [Parents][Parent] in the showing windows whose
+/// stylesheets reference that file, and reloads it in their lists. Removing the stylesheet invalidates the checksum
+/// JavaFX keeps for it, so adding it back makes the CSS engine parse the new content. Nodes are then restyled in a single
+/// CSS pass.
+///
+/// Only stylesheets referenced by `file:` URLs can be matched, which is the case when running from the build output.
+///
+/// The hook is installed by [HotSwapService] by default, it can be disabled by setting the system property
+/// `hotswapfx.reloadStylesheets` to `false`. Note that types which specify stylesheets as resources (see
+/// [HotSwappable#resources()]) are still swapped as well.
+final class StylesheetReloader implements ServiceHook<Path> {
+
+    //================================================================================
+    // Overridden Methods
+    //================================================================================
+
+    @Override
+    public void onEvent(Path path) {
+        String fileName = path.getFileName().toString();
+        if (!fileName.endsWith(".css") || !Files.isRegularFile(path)) return;
+        Utils.waitForFX(() -> {
+            int[] count = {0};
+            for (Window window : Window.getWindows()) {
+                Scene scene = window.getScene();
+                if (scene != null) count[0] += reload(scene.getStylesheets(), path);
+            }
+            Utils.forEachNode(node -> {
+                if (node instanceof Parent p) count[0] += reload(p.getStylesheets(), path);
+            });
+            int reloaded = count[0];
+            if (reloaded > 0) Logger.info("Reloaded stylesheet {} in {} places", fileName, reloaded);
+        });
+    }
+
+    //================================================================================
+    // Methods
+    //================================================================================
+
+    /// Removes and adds back, at the same position, all the stylesheets in the given list which point to the target file.
+    ///
+    /// @return the number of reloaded stylesheets
+    private int reload(List<String> stylesheets, Path target) {
+        int count = 0;
+        for (int i = 0; i < stylesheets.size(); i++) {
+            String url = stylesheets.get(i);
+            if (Utils.pointsTo(url, target)) {
+                stylesheets.remove(i);
+                stylesheets.add(i, url);
+                count++;
+            }
+        }
+        return count;
+    }
+}
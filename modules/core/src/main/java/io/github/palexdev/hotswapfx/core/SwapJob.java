@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2026 Parisi Alessandro - alessandro.parisi406@gmail.com
+ * This file is part of HotSwapFX (https://github.com/palexdev/HotSwapFX)
+ *
+ * HotSwapFX is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * HotSwapFX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with HotSwapFX. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.palexdev.hotswapfx.core;
+
+import java.util.concurrent.CompletableFuture;
+
+import javafx.beans.property.ReadOnlyDoubleProperty;
+import javafx.beans.property.ReadOnlyDoubleWrapper;
+
+/// Handle to a swap operation scheduled by [HotSwapService#swapNodesAsync(java.util.Collection)].
+///
+/// Big swaps are spread across several pulses (see [SwapScheduler]), this allows tracking the progress through
+/// [#progressProperty()] and waiting for the completion through [#future()].
+public final class SwapJob {
+
+    //================================================================================
+    // Properties
+    //================================================================================
+
+    private final CompletableFuture<SwapReport> future = new CompletableFuture<>();
+    private final ReadOnlyDoubleWrapper progress = new ReadOnlyDoubleWrapper(0.0);
+
+    //================================================================================
+    // Constructors
+    //================================================================================
+
+    SwapJob() {}
+
+    //================================================================================
+    // Static Methods
+    //================================================================================
+
+    static SwapJob completed(SwapReport report) {
+        SwapJob job = new SwapJob();
+        job.complete(report);
+        return job;
+    }
+
+    //================================================================================
+    // Methods
+    //================================================================================
+
+    /// Updates the progress, must be called on the FX thread.
+    void update(int processed, int total) {
+        progress.set(total <= 0 ? 1.0 : Math.min(1.0, (double) processed / total));
+    }
+
+    void complete(SwapReport report) {
+        progress.set(1.0);
+        future.complete(report);
+    }
+
+    void fail(Throwable ex) {
+        future.completeExceptionally(ex);
+    }
+
+    //================================================================================
+    // Getters/Setters
+    //================================================================================
+
+    /// @return the future which completes with the [SwapReport] once all the instances have been processed
+    public CompletableFuture<SwapReport> future() {
+        return future;
+    }
+
+    public boolean isDone() {
+        return future.isDone();
+    }
+
+    public double getProgress() {
+        return progress.get();
+    }
+
+    /// Specifies the fraction (from `0.0` to `1.0`) of the instances processed so far. Updated on the FX thread.
+    public ReadOnlyDoubleProperty progressProperty() {
+        return progress.getReadOnlyProperty();
+    }
+}
@@ -0,0 +1,492 @@
+/*
+ * Copyright (C) 2026 Parisi Alessandro - alessandro.parisi406@gmail.com
+ * This file is part of HotSwapFX (https://github.com/palexdev/HotSwapFX)
+ *
+ * HotSwapFX is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * HotSwapFX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with HotSwapFX. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.palexdev.hotswapfx.core;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import io.github.palexdev.hotswapfx.core.SwapReport.SwapResult;
+import io.github.palexdev.hotswapfx.core.annotations.HotSwappable;
+import io.github.palexdev.hotswapfx.core.annotations.SwapStrategy;
+import javafx.application.Platform;
+import javafx.geometry.Bounds;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.layout.Pane;
+import javafx.stage.Window;
+import org.tinylog.Logger;
+
+/// Collects all the instances that need to be replaced during a reload and executes the replacement.
+///
+/// Instances are added from any thread with [#add(Node, ClassMetadata)], while [#execute(long)] must be called on the
+/// FX thread. Before the first swap, the plan is prepared by inspecting the scenegraph:
+/// - Instances whose ancestor is also scheduled are dropped (pruned), since swapping the ancestor would throw away their
+///   replacements anyway. If the ancestor's swap fails, its pruned descendants are scheduled again, otherwise they are
+///   reported as [pruned][SwapResult#pruned(Node)]. If the ancestor is detached, they are [deferred][SwapResult#deferred(Node)]
+///   along with it.
+/// - The remaining instances are sorted by visibility (see [#visibilityRank(Node)]), so that what the user is looking at
+///   is swapped first, while the rest is deferred to later slices when the [SwapScheduler] spreads the plan across pulses.
+/// - Virtualized controls which use cells of the reloaded types (see [HotSwapRegistry#getOwners(Class)]) are asked to
+///   recreate their cells, once per control, rather than swapping every pooled cell.
+/// - Controls whose skin is of a reloaded [Skin][javafx.scene.control.Skin] type get a new skin instance, rather than being
+///   replaced themselves (see [ControlsSupport#reinstallSkins(Class)]).
+/// - Instances which are detached from the scenegraph are not swapped now. They are instead marked as stale in the
+///   registry, and replaced lazily as soon as they are attached to a parent or scene again (see [#defer(Node)]).
+///
+/// For types that allow it (see [HotSwappable#concurrent()]), the new instances can be created ahead of time and in
+/// parallel with [#instantiateConcurrently()], so that the FX thread only has to swap them in. Which instances are worth
+/// building is decided by [#selectPrebuilds()], without preparing the plan.
+///
+/// For types that request it (see [HotSwappable#prewarm()]), the new instances are built and pre-warmed by [#warmUp()]
+/// in an earlier FX task, so that skin creation and the first layout do not weigh on the swap itself.
+final class SwapPlan {
+
+    //================================================================================
+    // Properties
+    //================================================================================
+
+    private final HotSwapRegistry registry;
+    private final List<Task> tasks = new ArrayList<>();
+    private final List<SwapResult> results = new ArrayList<>();
+    private final Map<Node, List<Task>> pruned = new IdentityHashMap<>();
+    private final Set<Node> owners = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Set<Class<?>> skins = new LinkedHashSet<>();
+    private boolean prepared = false;
+    private boolean warmedUp = false;
+    private int cursor = 0;
+
+    //================================================================================
+    // Constructors
+    //================================================================================
+
+    SwapPlan(HotSwapRegistry registry) {
+        this.registry = registry;
+    }
+
+    //================================================================================
+    // Methods
+    //================================================================================
+
+    void add(Node node, ClassMetadata metadata) {
+        tasks.add(new Task(node, metadata));
+    }
+
+    /// Adds a virtualized control which must recreate its cells.
+    void refresh(Node owner) {
+        owners.add(owner);
+    }
+
+    /// Adds a skin type, controls using it will get a new skin instance.
+    void reskin(Class<?> skinClass) {
+        skins.add(skinClass);
+    }
+
+    /// Selects the tasks whose new instance is worth building ahead of time: the ones which allow it, are attached to the
+    /// scenegraph and have no ancestor in the plan.
+    ///
+    /// This only inspects the scenegraph, it has no side effects. Since the scenegraph may change before the plan is
+    /// executed, [#prepare()] makes the final decisions, and new instances built for tasks that end up pruned or
+    /// deferred are just discarded.
+    ///
+    /// _Must be called on the FX thread!_
+    void selectPrebuilds() {
+        Set<Node> scheduled = scheduledNodes();
+        for (Task task : tasks) {
+            Node node = task.node();
+            task.eager = task.metadata().isConcurrent() &&
+                         scheduledAncestor(node, scheduled) == null &&
+                         !isDetached(node);
+        }
+    }
+
+    /// Creates the new instances of all the tasks selected by [#selectPrebuilds()] on virtual threads, blocking until all
+    /// of them are done.
+    void instantiateConcurrently() {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Task task : tasks) {
+                if (task.eager) executor.execute(task::prebuild);
+            }
+        }
+    }
+
+    /// @return whether any of the tasks' new instance should be pre-warmed and [#warmUp()] did not run yet
+    boolean needsWarmUp() {
+        return !warmedUp && tasks.stream().anyMatch(t -> t.metadata().isPrewarm());
+    }
+
+    /// Builds the new instances of the tasks which request it (see [HotSwappable#prewarm()]) and pre-warms them with
+    /// [#prewarm(Node, Parent)]. This is meant to run in its own FX task, before the one performing the swaps.
+    ///
+    /// Like [#selectPrebuilds()], this does not prepare the plan: tasks pruned or deferred later just discard the
+    /// pre-warmed instance.
+    ///
+    /// _Must be called on the FX thread!_
+    void warmUp() {
+        warmedUp = true;
+        Set<Node> scheduled = scheduledNodes();
+        for (Task task : tasks) {
+            Node node = task.node();
+            if (!task.metadata().isPrewarm() || scheduledAncestor(node, scheduled) != null || isDetached(node)) continue;
+            task.build();
+            if (task.newNode instanceof Parent parent) {
+                try {
+                    prewarm(node, parent);
+                } catch (Exception ex) {
+                    Logger.warn("Could not pre-warm node {}: {}", parent, ex);
+                }
+            }
+        }
+    }
+
+    /// @return whether any of the tasks allows building the new instance off the FX thread
+    boolean hasConcurrent() {
+        return tasks.stream().anyMatch(t -> t.metadata().isConcurrent());
+    }
+
+    /// Swaps the pending instances until either all of them are processed or the given time budget (in nanoseconds)
+    /// is exceeded. At least one instance is always processed.
+    ///
+    /// _Must be called on the FX thread!_
+    void execute(long budget) {
+        if (!prepared) prepare();
+        long start = System.nanoTime();
+        Map<Pane, List<Staged>> batch = new LinkedHashMap<>();
+        while (cursor < tasks.size()) {
+            Task task = tasks.get(cursor++);
+            SwapResult result = swap(task, batch);
+            if (result != null) record(task, result);
+            if (System.nanoTime() - start >= budget) break;
+        }
+        flush(batch);
+    }
+
+    /// Adds the given result to the report.
+    ///
+    /// If the swap failed, the instances pruned because of the task's node are scheduled again. Otherwise, the old node
+    /// is disposed, and the pruned instances (which were replaced along with it) are unregistered and reported as such.
+    private void record(Task task, SwapResult result) {
+        results.add(result);
+        if (result.isFailure()) {
+            reschedulePruned(task.node());
+            return;
+        }
+        if (!result.isSuccess() && !result.isPruned()) return;
+
+        if (task.metadata().hasDispose()) task.metadata().dispose(task.node());
+        List<Task> descendants = pruned.remove(task.node());
+        if (descendants == null) return;
+        for (Task d : descendants) {
+            registry.unregister(d.node());
+            record(d, SwapResult.pruned(d.node()));
+        }
+    }
+
+    /// Applies all the replacements staged by [#swap(Task, Map)], with a single change to the children list of each
+    /// parent, see [SwapStrategy.Default#swapAllInParent(Pane, Map)].
+    ///
+    /// If the batched change fails for a parent, its nodes are replaced one by one with
+    /// [SwapStrategy.Default#swapInParent(Node, Node, Node)], so that a single bad replacement does not fail its siblings.
+    private void flush(Map<Pane, List<Staged>> batch) {
+        batch.forEach((parent, staged) -> {
+            Map<Node, Node> replacements = new IdentityHashMap<>(staged.size());
+            staged.forEach(s -> replacements.put(s.task().node(), s.newNode()));
+            boolean batched = true;
+            try {
+                SwapStrategy.Default.swapAllInParent(parent, replacements);
+            } catch (Exception ex) {
+                Logger.warn("Could not replace children of parent {} at once, replacing them one by one: {}", parent, ex);
+                batched = false;
+            }
+
+            for (Staged s : staged) {
+                Node node = s.task().node();
+                try {
+                    if (!batched) SwapStrategy.Default.swapInParent(node, s.newNode(), parent);
+                    if (s.newNode().getParent() != parent) {
+                        throw new HotSwapException("Node could not be replaced in its parent container");
+                    }
+                    registry.unregister(node);
+                    record(s.task(), SwapResult.success(node, s.newNode()));
+                } catch (Exception ex) {
+                    Logger.error(ex, "Could not replace node: {}", node);
+                    record(s.task(), SwapResult.failure(node, s.newNode(), ex));
+                }
+            }
+        });
+    }
+
+    /// Inspects the scenegraph to drop unnecessary work. Called automatically by [#execute(long)], so that its side
+    /// effects (cells refresh, skins reinstall) and the swaps happen in the same FX task, on an up-to-date scenegraph.
+    ///
+    /// _Must be called on the FX thread!_
+    void prepare() {
+        if (prepared) return;
+        prepared = true;
+        for (Node owner : owners) {
+            if (ControlsSupport.refresh(owner)) Logger.debug("Refreshed cells of virtualized control {}", owner);
+        }
+        for (Class<?> skin : skins) {
+            Logger.debug("Reinstalled skin {} on {} controls", skin.getName(), ControlsSupport.reinstallSkins(skin));
+        }
+
+        Set<Node> scheduled = scheduledNodes();
+        List<Task> kept = new ArrayList<>(tasks.size());
+        List<Node> deferred = new ArrayList<>();
+        for (Task task : tasks) {
+            Node node = task.node();
+            Node ancestor = scheduledAncestor(node, scheduled);
+            if (ancestor != null) {
+                pruned.computeIfAbsent(ancestor, _ -> new ArrayList<>()).add(task);
+            } else if (isDetached(node)) {
+                results.add(defer(node));
+                deferred.add(node);
+            } else {
+                kept.add(task);
+            }
+        }
+        deferred.forEach(this::deferPruned);
+        if (kept.size() != tasks.size()) {
+            Logger.debug("Pruned {} instances whose ancestors are also being swapped", tasks.size() - kept.size());
+        }
+
+        // Visible first
+        kept.forEach(t -> t.rank = visibilityRank(t.node()));
+        kept.sort(Comparator.comparingInt(t -> t.rank));
+        tasks.clear();
+        tasks.addAll(kept);
+    }
+
+    /// Ranks the given node by how visible it is to the user, the lower the value the more visible:
+    /// - `0`: in the focused window, visible and inside the scene's bounds
+    /// - `1`: in a showing window, visible and inside the scene's bounds
+    /// - `2`: in a showing window, visible but outside the scene's bounds
+    /// - `3`: in a showing window, but not visible (itself or one of its ancestors, e.g., hidden tabs)
+    /// - `4`: not in a showing window
+    static int visibilityRank(Node node) {
+        Scene scene = node.getScene();
+        Window window = scene != null ? scene.getWindow() : null;
+        if (window == null || !window.isShowing()) return 4;
+
+        for (Node n = node; n != null; n = n.getParent()) {
+            if (!n.isVisible()) return 3;
+        }
+
+        Bounds bounds = node.localToScene(node.getBoundsInLocal());
+        if (bounds == null || !bounds.intersects(0, 0, scene.getWidth(), scene.getHeight())) return 2;
+        return window.isFocused() ? 0 : 1;
+    }
+
+    private Set<Node> scheduledNodes() {
+        Set<Node> scheduled = Collections.newSetFromMap(new IdentityHashMap<>(tasks.size()));
+        tasks.forEach(t -> scheduled.add(t.node()));
+        return scheduled;
+    }
+
+    private static boolean isDetached(Node node) {
+        return node.getParent() == null && node.getScene() == null;
+    }
+
+    /// @return the nearest ancestor of the given node which is also part of the plan, `null` if none
+    private Node scheduledAncestor(Node node, Set<Node> scheduled) {
+        Parent parent = node.getParent();
+        while (parent != null) {
+            if (scheduled.contains(parent)) return parent;
+            parent = parent.getParent();
+        }
+        return null;
+    }
+
+    /// Marks the given detached node as stale, it will be swapped as soon as it is attached to a parent or scene.
+    ///
+    /// This way, no work is wasted on nodes which are not in the scenegraph (and may never be again), while nodes that
+    /// get re-attached later (cached views, pooled nodes) still converge to the new code.
+    private SwapResult defer(Node node) {
+        Logger.debug("Node {} is detached, it will be swapped when attached again", node);
+        registry.markStale(node, n -> Platform.runLater(() -> {
+            SwapPlan plan = new SwapPlan(registry);
+            plan.add(n, ClassMetadata.of(n.getClass()));
+            SwapScheduler.runNow(plan);
+        }));
+        return SwapResult.deferred(node);
+    }
+
+    /// Reports the instances that were pruned because of the given node as deferred too, as it is detached. They will be
+    /// replaced along with it once it is attached again.
+    private void deferPruned(Node node) {
+        List<Task> descendants = pruned.remove(node);
+        if (descendants == null) return;
+        for (Task d : descendants) {
+            results.add(SwapResult.deferred(d.node()));
+            deferPruned(d.node());
+        }
+    }
+
+    /// Schedules again the instances that were pruned because of the given node, as its swap failed.
+    private void reschedulePruned(Node node) {
+        List<Task> descendants = pruned.remove(node);
+        if (descendants != null) tasks.addAll(descendants);
+    }
+
+    /// Creates a new instance of the task's node and swaps it in the scenegraph, either with the class' strategy or the
+    /// [default one][SwapStrategy.Default].
+    ///
+    /// When the default strategy would replace the node in a [Pane], the replacement is instead staged in the given
+    /// batch and `null` is returned. See [#flush(Map)].
+    private SwapResult swap(Task task, Map<Pane, List<Staged>> batch) {
+        Node node = task.node();
+        ClassMetadata metadata = task.metadata();
+        Node newNode = null;
+        try {
+            newNode = task.newInstance();
+            if (newNode == null) throw new HotSwapException("New node is null, aborting replace...");
+            Logger.debug("Instantiated new node: {}, replacing...", newNode);
+            if (metadata.hasPreserved()) metadata.transferPreserved(node, newNode);
+
+            // Try 1: use strategy if available
+            if (metadata.hasStrategy()) {
+                metadata.swap(node, newNode);
+                registry.unregister(node);
+                return SwapResult.success(node, newNode);
+            }
+
+            // Try 2: try default strategy, batched by parent
+            if (node.getParent() instanceof Pane pane) {
+                batch.computeIfAbsent(pane, _ -> new ArrayList<>()).add(new Staged(task, newNode));
+                return null;
+            }
+            if (SwapStrategy.Default.swapInScenegraph(node, newNode)) {
+                registry.unregister(node);
+                return SwapResult.success(node, newNode);
+            }
+            throw new HotSwapException("Node is either detached from JavaFX Scenegraph or new one could not be attached");
+        } catch (Exception ex) {
+            Logger.error(ex, "Could not replace node: {}", node);
+            return SwapResult.failure(node, newNode, ex);
+        }
+    }
+
+    /// Attaches the given new node to a hidden scratch [Scene] which uses the same stylesheets of the old node's scene
+    /// and ancestors, then applies CSS (creating skins) and lays it out at the old node's size. Finally, the new node is
+    /// detached so that it can be moved in the live scenegraph.
+    ///
+    /// _Note that CSS is applied again once the node enters the live scene. That pass is cheaper, since skins already
+    /// exist and the style caches are warm, but it's not free._
+    ///
+    /// Does nothing if the old node is not in a scene or the new node is already attached somewhere.
+    static void prewarm(Node oldNode, Parent newNode) {
+        Scene target = oldNode.getScene();
+        if (target == null || newNode.getParent() != null || newNode.getScene() != null) return;
+
+        // Ancestors' stylesheets, outermost first so that nearer ones take precedence
+        Deque<String> stylesheets = new ArrayDeque<>();
+        for (Parent p = oldNode.getParent(); p != null; p = p.getParent()) {
+            List<String> pSheets = p.getStylesheets();
+            for (int i = pSheets.size() - 1; i >= 0; i--) stylesheets.addFirst(pSheets.get(i));
+        }
+
+        Scene scratch = new Scene(newNode);
+        scratch.setUserAgentStylesheet(target.getUserAgentStylesheet());
+        scratch.getStylesheets().setAll(target.getStylesheets());
+        scratch.getStylesheets().addAll(stylesheets);
+        try {
+            newNode.applyCss();
+            Bounds bounds = oldNode.getLayoutBounds();
+            if (newNode.isResizable()) newNode.resize(bounds.getWidth(), bounds.getHeight());
+            newNode.layout();
+        } finally {
+            scratch.setRoot(new Group());
+        }
+    }
+
+    boolean isEmpty() {
+        return tasks.isEmpty() && owners.isEmpty() && skins.isEmpty();
+    }
+
+    /// @return the number of instances to swap, may grow during the execution if the swap of a pruned ancestor fails
+    int size() {
+        return tasks.size();
+    }
+
+    /// @return the number of instances processed so far
+    int processed() {
+        return cursor;
+    }
+
+    boolean isDone() {
+        return prepared && cursor >= tasks.size();
+    }
+
+    SwapReport report() {
+        return new SwapReport(new ArrayList<>(results));
+    }
+
+    //================================================================================
+    // Inner Classes
+    //================================================================================
+
+    /// A replacement waiting to be applied in its parent, see [#flush(Map)].
+    private record Staged(Task task, Node newNode) {}
+
+    /// An entry of the plan, the instance to replace and the metadata of its class.
+    ///
+    /// The new instance may be built ahead of time with [#prebuild()], otherwise it's created on demand by [#newInstance()].
+    static final class Task {
+        private final Node node;
+        private final ClassMetadata metadata;
+        private Node newNode;
+        private Exception error;
+        private int rank;
+        private boolean eager;
+
+        Task(Node node, ClassMetadata metadata) {
+            this.node = node;
+            this.metadata = metadata;
+        }
+
+        void prebuild() {
+            try {
+                newNode = metadata.newInstance(node);
+            } catch (Exception ex) {
+                error = ex;
+            }
+        }
+
+        /// Like [#prebuild()], but reuses the new instance if already built.
+        void build() {
+            if (newNode == null && error == null) prebuild();
+        }
+
+        Node newInstance() throws Exception {
+            if (error != null) throw error;
+            if (newNode != null) return newNode;
+            return metadata.newInstance(node);
+        }
+
+        Node node() {
+            return node;
+        }
+
+        ClassMetadata metadata() {
+            return metadata;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2026 Parisi Alessandro - alessandro.parisi406@gmail.com
+ * This file is part of HotSwapFX (https://github.com/palexdev/HotSwapFX)
+ *
+ * HotSwapFX is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * HotSwapFX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with HotSwapFX. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.palexdev.hotswapfx.core;
+
+import java.util.Collections;
+import java.util.List;
+
+import javafx.scene.Node;
+
+/// Outcome of a swap operation performed by [HotSwapService]. Holds one [SwapResult] for every instance the service
+/// attempted to replace.
+public record SwapReport(List<SwapResult> results) {
+    public static final SwapReport EMPTY = new SwapReport(Collections.emptyList());
+
+    public SwapReport {
+        results = Collections.unmodifiableList(results);
+    }
+
+    /// @return the results of the instances which were replaced successfully
+    public List<SwapResult> succeeded() {
+        return results.stream().filter(SwapResult::isSuccess).toList();
+    }
+
+    /// @return the results of the instances which could not be replaced
+    public List<SwapResult> failed() {
+        return results.stream().filter(SwapResult::isFailure).toList();
+    }
+
+    /// @return the results of the instances which were detached, and will be replaced once attached again
+    public List<SwapResult> deferred() {
+        return results.stream().filter(SwapResult::isDeferred).toList();
+    }
+
+    /// @return the results of the instances which were not swapped individually, because they were replaced along with
+    /// an ancestor
+    public List<SwapResult> pruned() {
+        return results.stream().filter(SwapResult::isPruned).toList();
+    }
+
+    public boolean isEmpty() {
+        return results.isEmpty();
+    }
+
+    //================================================================================
+    // Inner Classes
+    //================================================================================
+
+    /// The outcome of swapping a single instance.
+    ///
+    /// If the operation failed, `newNode` may be `null` (the new instance could not be created) and `error` is the cause.
+    ///
+    /// If the operation was deferred (the old node was detached) or the instance was pruned (replaced along with an
+    /// ancestor), both `newNode` and `error` are `null`.
+    public record SwapResult(Status status, Node oldNode, Node newNode, Throwable error) {
+        public static SwapResult success(Node oldNode, Node newNode) {
+            return new SwapResult(Status.SUCCESS, oldNode, newNode, null);
+        }
+
+        public static SwapResult failure(Node oldNode, Node newNode, Throwable error) {
+            return new SwapResult(Status.FAILURE, oldNode, newNode, error);
+        }
+
+        public static SwapResult deferred(Node oldNode) {
+            return new SwapResult(Status.DEFERRED, oldNode, null, null);
+        }
+
+        public static SwapResult pruned(Node oldNode) {
+            return new SwapResult(Status.PRUNED, oldNode, null, null);
+        }
+
+        public boolean isSuccess() {
+            return status == Status.SUCCESS;
+        }
+
+        public boolean isFailure() {
+            return status == Status.FAILURE;
+        }
+
+        public boolean isDeferred() {
+            return status == Status.DEFERRED;
+        }
+
+        public boolean isPruned() {
+            return status == Status.PRUNED;
+        }
+    }
+
+    public enum Status {
+        SUCCESS,
+        FAILURE,
+        DEFERRED,
+        PRUNED
+    }
+}
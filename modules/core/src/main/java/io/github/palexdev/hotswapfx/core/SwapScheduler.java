@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2026 Parisi Alessandro - alessandro.parisi406@gmail.com
+ * This file is part of HotSwapFX (https://github.com/palexdev/HotSwapFX)
+ *
+ * HotSwapFX is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * HotSwapFX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with HotSwapFX. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.palexdev.hotswapfx.core;
+
+import java.util.concurrent.TimeUnit;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import org.tinylog.Logger;
+
+/// Executes a [SwapPlan] on the FX thread, reporting progress and completion through a [SwapJob].
+///
+/// Plans with up to `hotswapfx.sliceThreshold` (system property, defaults to `256`) instances are executed in a single
+/// FX thread task, so that the whole reload costs a single layout/CSS pass. Bigger plans are instead processed in slices,
+/// one per pulse (driven by an [AnimationTimer]), each bounded by a time budget of `hotswapfx.pulseBudget`
+/// milliseconds (system property, defaults to `8`). This way, animations and input stay responsive during big reloads.
+///
+/// At least one instance is processed per slice, so that the plan always makes progress regardless of the budget.
+final class SwapScheduler extends AnimationTimer {
+
+    //================================================================================
+    // Properties
+    //================================================================================
+
+    private final SwapPlan plan;
+    private final SwapJob job;
+    private final long budget;
+
+    //================================================================================
+    // Constructors
+    //================================================================================
+
+    private SwapScheduler(SwapPlan plan, SwapJob job, long budget) {
+        this.plan = plan;
+        this.job = job;
+        this.budget = budget;
+    }
+
+    //================================================================================
+    // Static Methods
+    //================================================================================
+
+    /// Schedules the given plan for execution on the FX thread.
+    ///
+    /// If the plan has types which allow it (see [SwapPlan#hasConcurrent()]), their new instances are first built on
+    /// virtual threads, from a background thread rather than the caller's, so that neither the caller nor the FX thread
+    /// is blocked meanwhile.
+    ///
+    /// If the plan has new instances to pre-warm (see [SwapPlan#needsWarmUp()]), that is done in a first FX task, and the
+    /// swaps start from the following pulse.
+    static SwapJob schedule(SwapPlan plan) {
+        SwapJob job = new SwapJob();
+        if (!plan.hasConcurrent()) {
+            start(plan, job);
+            return job;
+        }
+
+        Thread.ofVirtual().name("HotSwapFX Prebuild").start(() -> {
+            try {
+                Utils.waitForFX(plan::selectPrebuilds);
+                plan.instantiateConcurrently();
+            } catch (Throwable ex) {
+                job.fail(ex);
+                return;
+            }
+            start(plan, job);
+        });
+        return job;
+    }
+
+    /// Executes the given plan entirely and immediately. _Must be called on the FX thread!_
+    ///
+    /// New instances are neither built concurrently nor pre-warmed, since the FX thread would just wait for them, and
+    /// there is no earlier task to move that work to.
+    static SwapReport runNow(SwapPlan plan) {
+        SwapJob job = new SwapJob();
+        runAll(plan, job);
+        return job.future().join();
+    }
+
+    private static void start(SwapPlan plan, SwapJob job) {
+        int threshold = Integer.getInteger("hotswapfx.sliceThreshold", 256);
+        boolean sliced = plan.size() > threshold;
+        long budget = sliced
+            ? TimeUnit.MILLISECONDS.toNanos(Integer.getInteger("hotswapfx.pulseBudget", 8))
+            : Long.MAX_VALUE;
+        if (sliced) Logger.debug("Spreading swap of {} instances across pulses, budget: {}ns", plan.size(), budget);
+
+        if (plan.needsWarmUp()) {
+            Platform.runLater(() -> {
+                try {
+                    plan.warmUp();
+                    new SwapScheduler(plan, job, budget).start();
+                } catch (Throwable ex) {
+                    job.fail(ex);
+                }
+            });
+        } else if (sliced) {
+            Platform.runLater(() -> new SwapScheduler(plan, job, budget).start());
+        } else {
+            Platform.runLater(() -> runAll(plan, job));
+        }
+    }
+
+    private static void runAll(SwapPlan plan, SwapJob job) {
+        try {
+            // Failed swaps may reschedule pruned instances, which are appended after the current pass
+            do {
+                plan.execute(Long.MAX_VALUE);
+            } while (!plan.isDone());
+            job.complete(plan.report());
+        } catch (Throwable ex) {
+            job.fail(ex);
+        }
+    }
+
+    //================================================================================
+    // Overridden Methods
+    //================================================================================
+
+    @Override
+    public void handle(long now) {
+        try {
+            plan.execute(budget);
+            job.update(plan.processed(), plan.size());
+            if (plan.isDone()) {
+                stop();
+                job.complete(plan.report());
+            }
+        } catch (Throwable ex) {
+            stop();
+            job.fail(ex);
+        }
+    }
+}
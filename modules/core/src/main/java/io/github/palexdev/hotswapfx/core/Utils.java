@@ -18,17 +18,22 @@
 
 package io.github.palexdev.hotswapfx.core;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.Method;
+import java.net.URI;
 import java.nio.file.FileSystem;
 import java.nio.file.FileSystems;
+import java.nio.file.Path;
 import java.nio.file.PathMatcher;
-import java.util.Arrays;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import io.github.palexdev.hotswapfx.core.annotations.Factory;
 import javafx.application.Platform;
 import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.stage.Window;
 import org.tinylog.Logger;
 
 public class Utils {
@@ -46,19 +51,10 @@ public class Utils {
     /// Creates a new instance of the given node type by either:
     /// - Retrieving and invoking the first method annotated with [Factory] on the given node's class
     /// - Invoking the no-args constructor
+    ///
+    /// The lookup is cached per class, see [ClassMetadata].
     public static Node newInstanceOf(Node node) throws ReflectiveOperationException {
-        Class<? extends Node> klass = node.getClass();
-        Method factory = Arrays.stream(klass.getDeclaredMethods())
-            .filter(m -> m.isAnnotationPresent(Factory.class))
-            .findFirst()
-            .orElse(null);
-        if (factory != null) {
-            factory.setAccessible(true);
-            return (Node) factory.invoke(node);
-        }
-
-        Constructor<? extends Node> noArg = klass.getConstructor();
-        return noArg.newInstance();
+        return ClassMetadata.of(node.getClass()).newInstance(node);
     }
 
     /// Runs the given runnable on the FX thread and blocks the calling thread until it finishes.
@@ -105,6 +101,34 @@ public class Utils {
         return FileSystems.getDefault().getPathMatcher(expr);
     }
 
+    /// @return whether the given URL points to the given file. Only `file:` URLs are supported, any other URL (or an
+    /// invalid one) does not match
+    public static boolean pointsTo(String url, Path file) {
+        try {
+            URI uri = URI.create(url);
+            return "file".equalsIgnoreCase(uri.getScheme()) &&
+                   Path.of(uri).toAbsolutePath().normalize().equals(file.toAbsolutePath().normalize());
+        } catch (Exception ex) {
+            return false;
+        }
+    }
+
+    /// Visits every node in the scenes of all the [windows][Window#getWindows()], depth-first.
+    ///
+    /// _Must be called on the FX thread!_
+    public static void forEachNode(Consumer<Node> action) {
+        Deque<Node> stack = new ArrayDeque<>();
+        for (Window window : Window.getWindows()) {
+            Scene scene = window.getScene();
+            if (scene != null && scene.getRoot() != null) stack.push(scene.getRoot());
+        }
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            action.accept(node);
+            if (node instanceof Parent p) p.getChildrenUnmodifiable().forEach(stack::push);
+        }
+    }
+
     //================================================================================
     // Inner Classes
     //================================================================================
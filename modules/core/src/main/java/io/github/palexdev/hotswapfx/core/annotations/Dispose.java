@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2026 Parisi Alessandro - alessandro.parisi406@gmail.com
+ * This file is part of HotSwapFX (https://github.com/palexdev/HotSwapFX)
+ *
+ * HotSwapFX is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * HotSwapFX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with HotSwapFX. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.palexdev.hotswapfx.core.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/// Annotation to be used on a method to release the resources of an old instance once it has been successfully replaced
+/// by the hot swap system. This is the place to remove listeners and bindings registered on long-lived objects
+/// (models, services, the scene, ...) which would otherwise keep the whole old subtree reachable after every reload.
+///
+/// The method is invoked on the FX thread, after the new instance is in the scenegraph, and after the fields marked by
+/// [Preserve] have been transferred.
+///
+/// _The method annotated by this must have no args!_
+///
+/// _**Note:** the values of fields marked by [Preserve] have already been moved to the new instance at this point, so
+/// they must not be released or closed here!_
+///
+/// @see HotSwappable#unbind()
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Dispose {}
@@ -24,9 +24,17 @@ import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
 import io.github.palexdev.hotswapfx.core.Utils;
+import javafx.scene.Scene;
 
 /// Annotation to mark a certain type as part of the hot swap mechanism.
 ///
+/// When the runtime agent redefines a marked type, new method bodies already apply to the existing instances, so they
+/// are swapped only if what their constructors produce may have changed: the class structure, the constructors and
+/// static initializers, the methods of the same class they reach (including lambdas, except event handlers and
+/// listeners) and overrides (which may be invoked by a superclass constructor). Edits to event handlers registered by
+/// the constructor, for example, take effect in place. The first reload of a type always swaps, since what changed is
+/// only known from the second one on. Code of other classes is not inspected, declare it among the [#dependencies()].
+///
 /// _**Note:** Removing this annotation at runtime is not supported! The `ByteBuddy` agent depends on this to check which
 /// classes need to be reloaded/transformed/registered!_
 @Retention(RetentionPolicy.RUNTIME)
@@ -38,6 +46,40 @@ public @interface HotSwappable {
 
     /// Allows specifying an expression to match changed resources on the classpath and reload the marked type.
     ///
+    /// _Stylesheets don't need to be matched here, they are reloaded in place by the service (unless the
+    /// `hotswapfx.reloadStylesheets` system property is `false`), matching them would also rebuild the marked type._
+    ///
     /// @see Utils#toPathMatcher(String)
     String resources() default "";
+
+    /// When `true`, new instances of the marked type are created off the FX thread, in parallel on virtual threads.
+    /// Only the scenegraph mutation is then performed on the FX thread.
+    ///
+    /// This is beneficial for heavy views which spend most of the reload time in their constructors, but it's only safe
+    /// if the constructor (or the [Factory] method) does not need to run on the FX thread. Building detached nodes is
+    /// allowed, while creating windows or modifying the live scenegraph is not.
+    ///
+    /// _Concurrent creation is skipped when the swap is performed synchronously on the FX thread._
+    boolean concurrent() default false;
+
+    /// When `true`, new instances of the marked type are built and pre-warmed in an FX task before the one performing
+    /// the swap. The service attaches them to a hidden scratch [Scene] which shares the stylesheets of the old node's
+    /// scene (and ancestors), applies CSS (which also creates skins) and lays them out at the old node's size.
+    ///
+    /// This splits the cost of a reload across frames: skin creation and the first layout are paid before the swap.
+    /// CSS is still applied again once the new node enters the live scene, albeit with warm caches. Overall the work is
+    /// slightly more, so this is worth it only for large views whose swap causes visible hitches.
+    ///
+    /// _Pre-warming is skipped when the swap is performed synchronously on the FX thread._
+    boolean prewarm() default false;
+
+    /// When `true`, every [javafx.beans.property.Property] held by the instance fields of the old node is unbound once
+    /// the node has been replaced (right after the [Dispose] method, if any). Bindings reference their target weakly, but
+    /// until the old node is collected, it keeps being updated by the external observables it is bound to, which in turn
+    /// keep its listeners around. Unbinding stops this immediately.
+    ///
+    /// _Only the fields declared by the marked type and its superclasses are inspected, up to the first class of another
+    /// module (or the first JavaFX class). Fields marked by [Preserve] are skipped, since their values now belong to the
+    /// new instance. Listeners cannot be removed automatically, use [Dispose] for that._
+    boolean unbind() default false;
 }
@@ -0,0 +1,37 @@
+/*
+ * Copyright (C) 2026 Parisi Alessandro - alessandro.parisi406@gmail.com
+ * This file is part of HotSwapFX (https://github.com/palexdev/HotSwapFX)
+ *
+ * HotSwapFX is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * HotSwapFX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with HotSwapFX. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.palexdev.hotswapfx.core.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/// Annotation to be used on a field to tell the hot swap system to carry its value over from the old instance to the new
+/// one, right before the swap. This allows reusing expensive models, caches or connections instead of rebuilding them
+/// on every reload.
+///
+/// _Note that the value is transferred after the new instance is created (by its constructor or [Factory]), so whatever
+/// the constructor assigns to the field is overwritten. Expensive initialization should thus be done lazily, or the
+/// factory can hand the old value to the new instance directly._
+///
+/// Both instance and `final` fields are supported, static fields are ignored.
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface Preserve {}
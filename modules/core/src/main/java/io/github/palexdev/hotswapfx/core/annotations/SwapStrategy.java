@@ -22,6 +22,10 @@ import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 
 import io.github.palexdev.hotswapfx.core.Utils;
 import io.github.palexdev.hotswapfx.core.Utils.ThrowingRunnable;
@@ -51,6 +55,9 @@ public @interface SwapStrategy {
     ///
     /// The two attempts are combined into one by [#swapInScenegraph(Node, Node)]
     ///
+    /// When many nodes in the same parent must be replaced, [#swapAllInParent(Pane, Map)] does it with a single change
+    /// to the children list, which is what the hotswap service uses.
+    ///
     /// _Note: swapping must be done on the FX thread and ideally the calling thread should wait for the swap to happen!
     /// Default implementations already do this with [Utils#waitForFX(ThrowingRunnable)]_
     interface Default {
@@ -70,6 +77,32 @@ public @interface SwapStrategy {
             return false;
         }
 
+        /// Replaces all the children of the given parent which are keys of the given map with the respective values.
+        ///
+        /// Unlike calling [#swapInParent(Node, Node, Node)] for each node (which is `O(n)` per node and fires a change
+        /// event every time), this builds the new children list once and applies it with a single `setAll`.
+        ///
+        /// _The map should compare keys by identity, e.g., [IdentityHashMap]_
+        ///
+        /// @return the number of replaced nodes
+        static int swapAllInParent(Pane parent, Map<Node, Node> replacements) {
+            ObservableList<Node> children = parent.getChildren();
+            List<Node> updated = new ArrayList<>(children);
+            int count = 0;
+            for (int i = 0; i < updated.size(); i++) {
+                Node newNode = replacements.get(updated.get(i));
+                if (newNode != null) {
+                    updated.set(i, newNode);
+                    count++;
+                }
+            }
+            if (count > 0) {
+                children.setAll(updated);
+                Logger.debug("Replaced {} nodes in parent container {}", count, parent);
+            }
+            return count;
+        }
+
         static boolean swapInScene(Node oldNode, Node newNode, Scene scene) {
             if (oldNode != null &&
                 scene != null &&
@@ -1,5 +1,7 @@
 module HotSwapFX.Core {
     requires transitive javafx.graphics;
+    requires static javafx.controls;
+    requires java.management;
 
     requires org.tinylog.api;
     requires org.tinylog.impl;
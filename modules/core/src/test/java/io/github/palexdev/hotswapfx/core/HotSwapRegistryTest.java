@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2026 Parisi Alessandro - alessandro.parisi406@gmail.com
+ * This file is part of HotSwapFX (https://github.com/palexdev/HotSwapFX)
+ *
+ * HotSwapFX is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * HotSwapFX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with HotSwapFX. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.palexdev.hotswapfx.core;
+
+import java.util.List;
+import java.util.Set;
+
+import io.github.palexdev.hotswapfx.core.annotations.HotSwappable;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HotSwapRegistryTest {
+
+    @Test
+    void testTransitiveClosure() {
+        HotSwapRegistry registry = registry(Base.class, Middle.class, Top.class, Unrelated.class);
+        assertEquals(List.of(Base.class, Middle.class, Top.class), registry.affectedBy(List.of(Base.class)));
+        assertEquals(List.of(Middle.class, Top.class), registry.affectedBy(List.of(Middle.class)));
+        assertEquals(List.of(Top.class), registry.affectedBy(List.of(Top.class)));
+    }
+
+    @Test
+    void testTopologicalOrder() {
+        HotSwapRegistry registry = registry(Diamond.class, Right.class, Left.class, Base.class);
+        List<Class<?>> affected = registry.affectedBy(List.of(Base.class));
+        assertEquals(4, affected.size());
+        assertEquals(Base.class, affected.getFirst());
+        assertEquals(Diamond.class, affected.getLast());
+        assertTrue(Set.of(Left.class, Right.class).containsAll(affected.subList(1, 3)));
+
+        // Changing a dependent along with its dependency must not break the order
+        affected = registry.affectedBy(List.of(Diamond.class, Left.class, Base.class));
+        assertBefore(affected, Base.class, Left.class);
+        assertBefore(affected, Base.class, Right.class);
+        assertBefore(affected, Left.class, Diamond.class);
+        assertBefore(affected, Right.class, Diamond.class);
+    }
+
+    @Test
+    void testReverseIndex() {
+        HotSwapRegistry registry = registry(Diamond.class, Left.class, Right.class, Base.class);
+        assertEquals(Set.of(Left.class, Right.class), registry.dependsOn(Base.class));
+        assertEquals(Set.of(Diamond.class), registry.dependsOn(Left.class));
+        assertEquals(Set.of(), registry.dependsOn(Diamond.class));
+        assertEquals(Set.of(Left.class, Right.class), registry.dependenciesOf(Diamond.class));
+
+        // Refreshing must not duplicate or lose entries
+        registry.refresh(Left.class);
+        assertEquals(Set.of(Left.class, Right.class), registry.dependsOn(Base.class));
+    }
+
+    @Test
+    void testCycle() {
+        HotSwapRegistry registry = registry(CycleA.class, CycleB.class, AfterCycle.class, Base.class);
+        List<Class<?>> affected = registry.affectedBy(List.of(CycleA.class));
+        assertEquals(3, affected.size());
+        assertEquals(Set.of(CycleA.class, CycleB.class, AfterCycle.class), Set.copyOf(affected));
+
+        // Classes outside the cycle are still sorted
+        affected = registry.affectedBy(List.of(Base.class, CycleA.class));
+        assertEquals(Base.class, affected.getFirst());
+        assertEquals(4, affected.size());
+    }
+
+    @Test
+    void testSelfDependency() {
+        HotSwapRegistry registry = registry(Self.class);
+        assertEquals(List.of(Self.class), registry.affectedBy(List.of(Self.class)));
+    }
+
+    private static HotSwapRegistry registry(Class<?>... classes) {
+        HotSwapRegistry registry = new HotSwapRegistry();
+        for (Class<?> klass : classes) registry.refresh(klass);
+        return registry;
+    }
+
+    private static void assertBefore(List<Class<?>> list, Class<?> first, Class<?> second) {
+        assertTrue(
+            list.indexOf(first) < list.indexOf(second),
+            first.getSimpleName() + " should come before " + second.getSimpleName() + " in " + list
+        );
+    }
+
+    //================================================================================
+    // Fixtures
+    //================================================================================
+
+    static class Base {}
+
+    @HotSwappable(dependencies = Base.class)
+    static class Middle {}
+
+    @HotSwappable(dependencies = Middle.class)
+    static class Top {}
+
+    @HotSwappable
+    static class Unrelated {}
+
+    @HotSwappable(dependencies = Base.class)
+    static class Left {}
+
+    @HotSwappable(dependencies = Base.class)
+    static class Right {}
+
+    @HotSwappable(dependencies = {Left.class, Right.class})
+    static class Diamond {}
+
+    @HotSwappable(dependencies = CycleB.class)
+    static class CycleA {}
+
+    @HotSwappable(dependencies = {CycleA.class, Base.class})
+    static class CycleB {}
+
+    @HotSwappable(dependencies = CycleB.class)
+    static class AfterCycle {}
+
+    @HotSwappable(dependencies = Self.class)
+    static class Self {}
+}
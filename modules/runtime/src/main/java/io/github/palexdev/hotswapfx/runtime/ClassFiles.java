@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2026 Parisi Alessandro - alessandro.parisi406@gmail.com
+ * This file is part of HotSwapFX (https://github.com/palexdev/HotSwapFX)
+ *
+ * HotSwapFX is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * HotSwapFX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with HotSwapFX. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.palexdev.hotswapfx.runtime;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32C;
+
+import io.github.palexdev.hotswapfx.core.HotSwapException;
+
+/// Minimal utilities to read information from class files without building a full type model.
+final class ClassFiles {
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private ClassFiles() {}
+
+    /// Extracts the binary name of the class (e.g., `com.example.Foo$Bar`) from its bytecode.
+    ///
+    /// Only the constant pool is scanned, to find the `this_class` entry and the UTF-8 entry it points to, everything
+    /// else is skipped.
+    ///
+    /// @throws HotSwapException if the bytes are not a valid class file
+    static String className(byte[] bytes) {
+        try {
+            ByteBuffer buf = open(bytes);
+            int[] offsets = constantPool(buf);
+            buf.getShort(); // Access flags
+            int thisClass = Short.toUnsignedInt(buf.getShort());
+            int nameIndex = Short.toUnsignedInt(buf.getShort(offsets[thisClass] + 1));
+            return utf8(bytes, offsets[nameIndex]).replace('/', '.');
+        } catch (HotSwapException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new HotSwapException("Malformed class file", ex);
+        }
+    }
+
+    /// Computes a compact fingerprint of the given bytecode: the CRC32C checksum in the upper 32 bits and the length in the
+    /// lower ones. Never `0` for a non-empty array.
+    static long hash(byte[] bytes) {
+        CRC32C crc = new CRC32C();
+        crc.update(bytes);
+        return (crc.getValue() << 32) | bytes.length;
+    }
+
+    /// Wraps the given bytes in a buffer positioned at the start of the constant pool, after checking the magic number.
+    static ByteBuffer open(byte[] bytes) {
+        ByteBuffer buf = ByteBuffer.wrap(bytes);
+        if (buf.getInt() != MAGIC) throw new HotSwapException("Not a class file");
+        return buf.position(8); // Skip minor and major versions
+    }
+
+    /// Scans the constant pool starting at the buffer's position, which is left right after it.
+    ///
+    /// @return the offset of every entry in the pool, indexed as in the class file (the first slot is unused, as well
+    /// as the ones following `Long` and `Double` entries)
+    static int[] constantPool(ByteBuffer buf) {
+        int count = Short.toUnsignedInt(buf.getShort());
+        int[] offsets = new int[count];
+        for (int i = 1; i < count; i++) {
+            offsets[i] = buf.position();
+            int tag = buf.get();
+            int size = switch (tag) {
+                case 1 -> Short.toUnsignedInt(buf.getShort(buf.position())) + 2; // Utf8
+                case 7, 8, 16, 19, 20 -> 2; // Class, String, MethodType, Module, Package
+                case 15 -> 3; // MethodHandle
+                case 3, 4, 9, 10, 11, 12, 17, 18 -> 4; // Integer, Float, refs, NameAndType, Dynamic, InvokeDynamic
+                case 5, 6 -> 8; // Long, Double
+                default -> throw new HotSwapException("Unknown constant pool tag " + tag + " at index " + i);
+            };
+            buf.position(buf.position() + size);
+            if (tag == 5 || tag == 6) i++; // Take two slots
+        }
+        return offsets;
+    }
+
+    /// Decodes the (modified) UTF-8 constant pool entry at the given offset.
+    static String utf8(byte[] bytes, int offset) {
+        int length = ((bytes[offset + 1] & 0xFF) << 8) | (bytes[offset + 2] & 0xFF);
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, offset + 1, length + 2))) {
+            return in.readUTF();
+        } catch (IOException ex) {
+            throw new HotSwapException("Malformed UTF-8 constant at offset " + offset, ex);
+        }
+    }
+}
@@ -0,0 +1,428 @@
+/*
+ * Copyright (C) 2026 Parisi Alessandro - alessandro.parisi406@gmail.com
+ * This file is part of HotSwapFX (https://github.com/palexdev/HotSwapFX)
+ *
+ * HotSwapFX is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * HotSwapFX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with HotSwapFX. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.palexdev.hotswapfx.runtime;
+
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.function.Predicate;
+
+import io.github.palexdev.hotswapfx.core.HotSwapException;
+
+/// Structural summary of a class file, used by the agent to classify the changes between two versions of a class and
+/// decide whether existing instances need to be swapped.
+///
+/// [java.lang.instrument.Instrumentation#redefineClasses(java.lang.instrument.ClassDefinition...)] already applies new
+/// method bodies to existing instances, so swapping them is only needed when what a constructor would produce changes.
+/// The shape is made of:
+/// - `members`: the class header (access flags, superclass, interfaces), the fields, the method signatures and the
+/// runtime visible annotations of all of them. A difference here is a [Change#STRUCTURE] change
+/// - `initializers`: the bytecode of the constructors and static initializers, and of all the methods of the same
+/// class they reach (transitively), through invocations or through the method handles passed to `invokedynamic`
+/// bootstrap methods (e.g., lambdas and method references). Lambdas implementing JavaFX event handlers and listeners,
+/// see [#CALLBACKS], are not followed: the constructor only registers them, and they run later with their new body.
+/// A difference here is a [Change#INITIALIZER] change
+/// - `overridable`: the bytecode of each non-private instance method, along with the methods of the same class it
+/// reaches. These may be overrides invoked by a superclass constructor (e.g., `Control#createDefaultSkin()`), so a
+/// difference in one of them which actually overrides a method is an [Change#INITIALIZER] change too,
+/// see [#compare(ClassShape, Predicate)]
+///
+/// Anything else (e.g., the bodies of event handlers registered by the constructor) is a [Change#BODY] change.
+///
+/// Bytecode is hashed with constant pool references replaced by the constants they point to, so that edits to unrelated
+/// methods, which shuffle the constant pool, do not affect the shape.
+///
+/// The analysis is limited to the bytecode of a single class: code of other classes invoked during construction
+/// (e.g., a helper or a superclass), as well as reflective invocations, is not followed. Classes whose instances
+/// depend on such code should declare it among their [io.github.palexdev.hotswapfx.core.annotations.HotSwappable#dependencies()].
+record ClassShape(long members, long initializers, Map<String, Long> overridable) {
+    /// Descriptors of the functional interfaces whose lambdas are not considered initializer code even when created by
+    /// a constructor, since they are only invoked in response to later events
+    static final Set<String> CALLBACKS = Set.of(
+        "Ljavafx/event/EventHandler;",
+        "Ljavafx/beans/InvalidationListener;",
+        "Ljavafx/beans/value/ChangeListener;",
+        "Ljavafx/collections/ListChangeListener;",
+        "Ljavafx/collections/SetChangeListener;",
+        "Ljavafx/collections/MapChangeListener;"
+    );
+
+    /// The possible kinds of change between two versions of a class, from the least to the most impactful.
+    enum Change {
+        /// Only the bodies of methods not involved in the construction of instances changed
+        BODY,
+        /// Constructors, static initializers or methods invoked by them changed
+        INITIALIZER,
+        /// Fields, method signatures or annotations changed
+        STRUCTURE
+    }
+
+    //================================================================================
+    // Static Methods
+    //================================================================================
+
+    /// Computes the shape of the given class file.
+    ///
+    /// @throws HotSwapException if the bytes are not a valid class file
+    static ClassShape of(byte[] bytes) {
+        try {
+            return new Parser(bytes).parse();
+        } catch (HotSwapException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new HotSwapException("Malformed class file", ex);
+        }
+    }
+
+    //================================================================================
+    // Methods
+    //================================================================================
+
+    /// @param isOverride tells whether a method, given by name and descriptor, overrides a method of a supertype
+    /// @return the kind of change from this shape to the given newer one
+    Change compare(ClassShape newer, Predicate<String> isOverride) {
+        if (members != newer.members) return Change.STRUCTURE;
+        if (initializers != newer.initializers) return Change.INITIALIZER;
+        for (Map.Entry<String, Long> e : newer.overridable.entrySet()) {
+            if (!e.getValue().equals(overridable.get(e.getKey())) && isOverride.test(e.getKey())) {
+                return Change.INITIALIZER;
+            }
+        }
+        return Change.BODY;
+    }
+
+    /// @param method the name and descriptor of a method declared by the given class, e.g., `build()V`
+    /// @return whether the method overrides a non-private instance method of one of the supertypes of the given class
+    static boolean isOverride(Class<?> klass, String method) {
+        int split = method.indexOf('(');
+        String name = method.substring(0, split);
+        String descriptor = method.substring(split);
+        Deque<Class<?>> queue = new ArrayDeque<>();
+        Set<Class<?>> visited = new HashSet<>();
+        supertypes(klass, queue);
+        while (!queue.isEmpty()) {
+            Class<?> c = queue.poll();
+            if (!visited.add(c)) continue;
+            for (Method m : c.getDeclaredMethods()) {
+                if (!m.getName().equals(name) || (m.getModifiers() & (Modifier.PRIVATE | Modifier.STATIC)) != 0) continue;
+                if (MethodType.methodType(m.getReturnType(), m.getParameterTypes()).toMethodDescriptorString().equals(descriptor)) {
+                    return true;
+                }
+            }
+            supertypes(c, queue);
+        }
+        return false;
+    }
+
+    private static void supertypes(Class<?> klass, Deque<Class<?>> queue) {
+        if (klass.getSuperclass() != null) queue.add(klass.getSuperclass());
+        queue.addAll(Arrays.asList(klass.getInterfaces()));
+    }
+
+    //================================================================================
+    // Inner Classes
+    //================================================================================
+
+    private static final class Parser {
+        /// Length of each instruction by opcode, `0` for the ones with variable length
+        private static final byte[] LENGTHS = new byte[256];
+
+        static {
+            Arrays.fill(LENGTHS, 0, 0xCA, (byte) 1);
+            for (int op : new int[]{0x10, 0x12, 0x15, 0x16, 0x17, 0x18, 0x19, 0x36, 0x37, 0x38, 0x39, 0x3A, 0xA9, 0xBC}) {
+                LENGTHS[op] = 2;
+            }
+            for (int op = 0x99; op <= 0xA8; op++) LENGTHS[op] = 3; // Branches
+            for (int op = 0xB2; op <= 0xB8; op++) LENGTHS[op] = 3; // Fields and invocations
+            for (int op : new int[]{0x11, 0x13, 0x14, 0x84, 0xBB, 0xBD, 0xC0, 0xC1, 0xC6, 0xC7}) LENGTHS[op] = 3;
+            LENGTHS[0xC5] = 4; // multianewarray
+            for (int op : new int[]{0xB9, 0xBA, 0xC8, 0xC9}) LENGTHS[op] = 5;
+            LENGTHS[0xAA] = LENGTHS[0xAB] = LENGTHS[0xC4] = 0; // tableswitch, lookupswitch, wide
+        }
+
+        private final byte[] bytes;
+        private final ByteBuffer buf;
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> overridable = new ArrayList<>();
+        private int[] pool;
+        private int[] bootstraps = new int[0];
+        private String thisClass;
+
+        Parser(byte[] bytes) {
+            this.bytes = bytes;
+            this.buf = ClassFiles.open(bytes);
+        }
+
+        ClassShape parse() {
+            pool = ClassFiles.constantPool(buf);
+            Hasher members = new Hasher();
+            members.put(Integer.toString(u2()));
+            thisClass = constant(u2());
+            int superIndex = u2();
+            members.put(superIndex == 0 ? "" : constant(superIndex));
+            int interfaces = u2();
+            for (int i = 0; i < interfaces; i++) members.put(constant(u2()));
+
+            List<String> signatures = new ArrayList<>();
+            int fields = u2();
+            for (int i = 0; i < fields; i++) signatures.add("F" + member(false));
+            int methods = u2();
+            for (int i = 0; i < methods; i++) signatures.add("M" + member(true));
+            Collections.sort(signatures); // Declaration order does not matter
+            signatures.forEach(members::put);
+            members.put(attributes(null));
+
+            List<String> initializers = codes.keySet().stream()
+                .filter(m -> m.startsWith("<init>") || m.startsWith("<clinit>"))
+                .sorted()
+                .toList();
+            Map<String, Long> hashes = new HashMap<>();
+            for (String method : overridable) hashes.put(method, reachable(List.of(method)));
+            return new ClassShape(members.value(), reachable(initializers), Map.copyOf(hashes));
+        }
+
+        /// Reads a field or method, recording the offset of its code if it's a method.
+        ///
+        /// @return the signature of the member, including its annotations
+        private String member(boolean method) {
+            int access = u2();
+            String name = constant(u2());
+            String key = name + constant(u2());
+            if (method && (access & (Modifier.PRIVATE | Modifier.STATIC)) == 0 && !name.equals("<init>")) {
+                overridable.add(key);
+            }
+            return access + " " + key + attributes(method ? key : null);
+        }
+
+        /// Reads a list of attributes.
+        ///
+        /// @param method the name and descriptor of the method the attributes belong to, to record its `Code` attribute
+        /// @return the runtime visible annotations found among the attributes, empty if none
+        private String attributes(String method) {
+            StringBuilder sb = new StringBuilder();
+            int count = u2();
+            for (int i = 0; i < count; i++) {
+                String name = constant(u2());
+                int length = buf.getInt();
+                int start = buf.position();
+                if ("RuntimeVisibleAnnotations".equals(name)) {
+                    int annotations = u2();
+                    for (int j = 0; j < annotations; j++) annotation(sb);
+                } else if ("Code".equals(name) && method != null) {
+                    codes.put(method, start);
+                } else if ("BootstrapMethods".equals(name)) {
+                    bootstraps = new int[u2()];
+                    for (int j = 0; j < bootstraps.length; j++) {
+                        bootstraps[j] = buf.position();
+                        buf.position(buf.position() + 2);
+                        int arguments = u2();
+                        buf.position(buf.position() + arguments * 2);
+                    }
+                }
+                buf.position(start + length);
+            }
+            return sb.toString();
+        }
+
+        private void annotation(StringBuilder sb) {
+            sb.append('@').append(constant(u2())).append('(');
+            int pairs = u2();
+            for (int i = 0; i < pairs; i++) {
+                sb.append(constant(u2())).append('=');
+                elementValue(sb);
+                sb.append(',');
+            }
+            sb.append(')');
+        }
+
+        private void elementValue(StringBuilder sb) {
+            char tag = (char) buf.get();
+            sb.append(tag);
+            switch (tag) {
+                case 'e' -> sb.append(constant(u2())).append('.').append(constant(u2()));
+                case '@' -> annotation(sb);
+                case '[' -> {
+                    int values = u2();
+                    sb.append('{');
+                    for (int i = 0; i < values; i++) {
+                        elementValue(sb);
+                        sb.append(',');
+                    }
+                    sb.append('}');
+                }
+                default -> sb.append(constant(u2()));
+            }
+        }
+
+        /// Hashes the code of the given methods, then follows the methods of the same class they reach, breadth-first.
+        private long reachable(Collection<String> roots) {
+            Hasher hasher = new Hasher();
+            Deque<String> queue = new ArrayDeque<>(roots);
+            Set<String> visited = new HashSet<>();
+            while (!queue.isEmpty()) {
+                String method = queue.poll();
+                Integer code = codes.get(method);
+                if (code == null || !visited.add(method)) continue; // Inherited, abstract or native
+                hasher.put(method);
+                code(code, hasher, queue);
+            }
+            return hasher.value();
+        }
+
+        /// Hashes the bytecode of the `Code` attribute at the given offset, resolving constant pool references.
+        /// Methods of this class which are invoked, or passed to a bootstrap method, are added to the given queue.
+        private void code(int offset, Hasher hasher, Deque<String> queue) {
+            int length = buf.getInt(offset + 4);
+            int start = offset + 8;
+            int pc = 0;
+            while (pc < length) {
+                int at = start + pc;
+                int op = bytes[at] & 0xFF;
+                int size = size(op, start, pc);
+                switch (op) {
+                    case 0x12 -> { // ldc
+                        hasher.put(op);
+                        hasher.put(constant(bytes[at + 1] & 0xFF));
+                    }
+                    case 0x13, 0x14, 0xB2, 0xB3, 0xB4, 0xB5, 0xB6, 0xB7, 0xB8, 0xB9, 0xBA, 0xBB, 0xBD, 0xC0, 0xC1, 0xC5 -> {
+                        int index = buf.getShort(at + 1) & 0xFFFF;
+                        hasher.put(op);
+                        hasher.put(constant(index));
+                        hasher.put(bytes, at + 3, size - 3);
+                        if (op >= 0xB6 && op <= 0xB9) {
+                            enqueue(index, queue);
+                        } else if (op == 0xBA) {
+                            String descriptor = constant(u2(pool[index] + 3));
+                            boolean callback = CALLBACKS.contains(descriptor.substring(descriptor.indexOf(')') + 1));
+                            bootstrap(u2(pool[index] + 1), hasher, callback ? null : queue);
+                        }
+                    }
+                    default -> hasher.put(bytes, at, size);
+                }
+                pc += size;
+            }
+
+            int table = start + length;
+            int handlers = u2(table);
+            for (int i = 0; i < handlers; i++) {
+                int entry = table + 2 + i * 8;
+                hasher.put(bytes, entry, 6);
+                int type = u2(entry + 6);
+                hasher.put(type == 0 ? "*" : constant(type));
+            }
+        }
+
+        /// Hashes the bootstrap method at the given index of the `BootstrapMethods` attribute and its static arguments.
+        /// Method handles to methods of this class (e.g., the implementation of a lambda) are added to the given queue,
+        /// unless it is `null`.
+        private void bootstrap(int index, Hasher hasher, Deque<String> queue) {
+            int offset = bootstraps[index];
+            hasher.put(constant(u2(offset)));
+            int arguments = u2(offset + 2);
+            for (int i = 0; i < arguments; i++) {
+                int argument = u2(offset + 4 + i * 2);
+                hasher.put(constant(argument));
+                if (queue != null && bytes[pool[argument]] == 15) enqueue(u2(pool[argument] + 2), queue); // MethodHandle
+            }
+        }
+
+        /// Adds the method referenced by the constant pool entry at the given index to the queue, if it belongs to
+        /// this class.
+        private void enqueue(int index, Deque<String> queue) {
+            if (thisClass.equals(constant(u2(pool[index] + 1)))) {
+                queue.add(constant(u2(pool[index] + 3)));
+            }
+        }
+
+        /// @return the size of the instruction at the given pc
+        private int size(int op, int start, int pc) {
+            int size = LENGTHS[op];
+            if (size != 0) return size;
+            return switch (op) {
+                case 0xC4 -> (bytes[start + pc + 1] & 0xFF) == 0x84 ? 6 : 4; // wide
+                case 0xAA -> { // tableswitch
+                    int operands = (pc + 4) & ~3;
+                    int low = buf.getInt(start + operands + 4);
+                    int high = buf.getInt(start + operands + 8);
+                    yield operands + 12 + (high - low + 1) * 4 - pc;
+                }
+                case 0xAB -> { // lookupswitch
+                    int operands = (pc + 4) & ~3;
+                    int pairs = buf.getInt(start + operands + 4);
+                    yield operands + 8 + pairs * 8 - pc;
+                }
+                default -> throw new HotSwapException("Unknown opcode " + op + " at pc " + pc);
+            };
+        }
+
+        /// Renders the constant pool entry at the given index as a string, resolving the entries it refers to.
+        private String constant(int index) {
+            int offset = pool[index];
+            int tag = bytes[offset];
+            return switch (tag) {
+                case 1 -> ClassFiles.utf8(bytes, offset);
+                case 3, 4 -> tag + ":" + buf.getInt(offset + 1);
+                case 5, 6 -> tag + ":" + buf.getLong(offset + 1);
+                case 7, 8, 16, 19, 20 -> tag + ":" + constant(u2(offset + 1));
+                case 9, 10, 11 -> constant(u2(offset + 1)) + "." + constant(u2(offset + 3));
+                case 12 -> constant(u2(offset + 1)) + constant(u2(offset + 3));
+                case 15 -> tag + ":" + bytes[offset + 1] + ":" + constant(u2(offset + 2));
+                case 17, 18 -> tag + ":" + constant(u2(offset + 3)); // Bootstrap method hashed by the invoking code
+                default -> throw new HotSwapException("Unknown constant pool tag " + tag + " at index " + index);
+            };
+        }
+
+        private int u2() {
+            return buf.getShort() & 0xFFFF;
+        }
+
+        private int u2(int offset) {
+            return buf.getShort(offset) & 0xFFFF;
+        }
+    }
+
+    /// 64-bit FNV-1a hash accumulator.
+    private static final class Hasher {
+        private long hash = 0xCBF29CE484222325L;
+
+        void put(int b) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001B3L;
+        }
+
+        void put(byte[] bytes, int offset, int length) {
+            for (int i = offset; i < offset + length; i++) put(bytes[i]);
+        }
+
+        void put(String s) {
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                put(c);
+                put(c >>> 8);
+            }
+            put(0); // Separator
+        }
+
+        long value() {
+            return hash;
+        }
+    }
+}
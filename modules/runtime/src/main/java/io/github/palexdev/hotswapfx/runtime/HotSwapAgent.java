@@ -25,8 +25,8 @@ import java.net.ServerSocket;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.stream.Stream;
 
-import io.github.palexdev.hotswapfx.core.HotSwapException;
 import io.github.palexdev.hotswapfx.core.HotSwapService;
 import io.github.palexdev.hotswapfx.core.ServiceHook;
 import io.github.palexdev.hotswapfx.core.ServiceHook.HookType;
@@ -36,11 +36,9 @@ import io.github.palexdev.hotswapfx.orchestration.message.ProcessPendingReloads;
 import io.github.palexdev.hotswapfx.orchestration.message.ReloadRequest;
 import io.github.palexdev.hotswapfx.orchestration.message.ReloadRequest.Changes;
 import io.github.palexdev.hotswapfx.orchestration.message.ToggleAutoReload;
+import io.github.palexdev.hotswapfx.runtime.ClassShape.Change;
 import net.bytebuddy.agent.builder.AgentBuilder;
 import net.bytebuddy.asm.Advice;
-import net.bytebuddy.description.type.TypeDescription;
-import net.bytebuddy.dynamic.ClassFileLocator;
-import net.bytebuddy.pool.TypePool;
 import org.tinylog.Logger;
 
 import static java.util.Optional.ofNullable;
@@ -55,7 +53,12 @@ import static net.bytebuddy.matcher.ElementMatchers.isConstructor;
 ///
 /// The agent starts a [HotSwapServer] that listens for reload requests. This process is about redefining all changed
 /// classes through the [Instrumentation#redefineClasses(ClassDefinition...)] and asking the service to swap the changed nodes.
+///
+/// Only the classes that are already loaded and whose bytecode actually changed are redefined, see [LoadedClassIndex].
+/// Then, unless disabled by [#classifyChanges()], instances are swapped only if constructors, initializers, overrides
+/// or the class structure changed, since new method bodies already apply to existing instances, see [ClassShape].
 public class HotSwapAgent {
+    private static final int PARALLEL_THRESHOLD = 64;
 
     public static void agentmain(String args, Instrumentation inst) {
         premain(args, inst);
@@ -69,6 +72,7 @@ public class HotSwapAgent {
 
     private final Map<String, String> args;
     private final Instrumentation inst;
+    private final LoadedClassIndex loadedClasses;
 
     protected HotSwapServer server;
     private boolean autoReload = true;
@@ -80,6 +84,7 @@ public class HotSwapAgent {
     public HotSwapAgent(String args, Instrumentation inst) {
         this.args = parseArgs(args);
         this.inst = inst;
+        this.loadedClasses = new LoadedClassIndex();
 
         server = new HotSwapServer(port());
         server.registerHook(ProcessPendingReloads.class, this::processPending);
@@ -87,6 +92,7 @@ public class HotSwapAgent {
     }
 
     public void install() {
+        loadedClasses.install(inst);
         new AgentBuilder.Default()
             .type(isAnnotatedWith(HotSwappable.class))
             .transform((builder, _, _, _, _) ->
@@ -147,44 +153,95 @@ public class HotSwapAgent {
 
         // Phase 1 - Redefine
         Logger.info("Reloading on: {}", request.changes());
-        ClassDefinition[] toRedefine = request.changes().keySet().stream()
+        // Reading and parsing class files is independent per file, large change sets (e.g., after a clean build) are
+        // processed in parallel
+        Set<Path> changed = request.changes().keySet();
+        Stream<Path> files = changed.size() > PARALLEL_THRESHOLD ? changed.parallelStream() : changed.stream();
+        ClassDefinition[] toRedefine = files
             .filter(p -> {
                 String fileName = p.getFileName().toString();
                 return fileName.endsWith(".class") && !"module-info.class".equals(fileName);
             })
-            .map(p -> {
+            .flatMap(p -> {
                 try {
                     byte[] classBytes = Files.readAllBytes(p);
-                    TypeDescription typeDesc = TypePool.Default.of(
-                        new ClassFileLocator.Simple(Collections.singletonMap("ignored.Name", classBytes))
-                    ).describe("ignored.Name").resolve();
-                    String className = typeDesc.getActualName();
-                    if (className.isEmpty()) {
-                        throw new HotSwapException("Could not resolve class name for path: " + p);
+                    String className = ClassFiles.className(classBytes);
+                    List<Class<?>> targets = loadedClasses.lookup(className);
+                    if (targets.isEmpty()) {
+                        // Not loaded yet, the new bytes will be picked up on first use
+                        Logger.trace("Class {} is not loaded, skipping...", className);
+                        return Stream.empty();
                     }
-                    return new ClassDefinition(Class.forName(className), classBytes);
+                    long hash = ClassFiles.hash(classBytes);
+                    return targets.stream()
+                        .filter(c -> {
+                            // Build tools often rewrite class files without changing them
+                            if (!loadedClasses.isUnchanged(c, hash)) return true;
+                            Logger.trace("Class {} did not change, skipping...", className);
+                            return false;
+                        })
+                        .map(c -> new ClassDefinition(c, classBytes));
                 } catch (Exception ex) {
                     Logger.error(ex);
-                    return null;
+                    return Stream.empty();
                 }
             })
-            .filter(Objects::nonNull)
             .toArray(ClassDefinition[]::new);
+        if (toRedefine.length == 0) {
+            Logger.info("No loaded class changed, nothing to swap");
+            return;
+        }
+
+        // Classify changes before redefining, while the index still holds the shapes of the current versions.
+        // Shapes are only known after a first redefinition, until then changes are unknown and classes always swapped
+        Map<Class<?>, ClassShape> shapes = new HashMap<>();
+        Map<Class<?>, Change> changes = new HashMap<>();
+        if (classifyChanges()) {
+            for (ClassDefinition cd : toRedefine) {
+                Class<?> c = cd.getDefinitionClass();
+                try {
+                    ClassShape shape = ClassShape.of(cd.getDefinitionClassFile());
+                    shapes.put(c, shape);
+                    ofNullable(loadedClasses.shapeOf(c)).ifPresent(old -> changes.put(c, old.compare(shape, m -> ClassShape.isOverride(c, m))));
+                } catch (Exception ex) {
+                    Logger.error(ex, "Could not classify changes of {}", c.getName());
+                }
+            }
+        }
+
         try {
             inst.redefineClasses(toRedefine);
+            for (ClassDefinition cd : toRedefine) {
+                Class<?> c = cd.getDefinitionClass();
+                loadedClasses.update(c, ClassFiles.hash(cd.getDefinitionClassFile()), shapes.get(c));
+            }
         } catch (Exception ex) {
             Logger.error("Could not redefine classes: {}", ex);
         }
 
-        Set<Class<?>> reloaded = new LinkedHashSet<>();
+        List<Class<?>> redefined = new ArrayList<>(toRedefine.length);
         for (ClassDefinition cd : toRedefine) {
-            reloaded.add(cd.getDefinitionClass());
-            reloaded.addAll(HotSwapService.instance().dependsOn(cd.getDefinitionClass()));
+            HotSwapService.instance().invalidate(cd.getDefinitionClass());
+            redefined.add(cd.getDefinitionClass());
+        }
+        List<Class<?>> affected = HotSwapService.instance().affectedBy(redefined);
+        Set<Class<?>> affectedSet = new HashSet<>(affected);
+        List<Class<?>> reloaded = new ArrayList<>(affected.size());
+        for (Class<?> c : affected) {
+            // Classes with unknown changes are always swapped. Otherwise, the new bodies are already in use, but
+            // instances still need to be rebuilt if a dependency changed
+            if (changes.get(c) != Change.BODY ||
+                HotSwapService.instance().dependenciesOf(c).stream().anyMatch(affectedSet::contains)) {
+                reloaded.add(c);
+            } else {
+                Logger.debug("Only method bodies of {} changed, skipping swap...", c.getName());
+                HotSwapService.instance().notifyLateHooks(c);
+            }
         }
 
         // Phase 2 - Swap
         Logger.info("Swapping classes: {}", Arrays.toString(reloaded.toArray()));
-        reloaded.forEach(HotSwapService.instance()::swapNodes);
+        HotSwapService.instance().swapNodes(reloaded);
     }
 
     protected void toggleAutoReload(ToggleAutoReload request) {
@@ -213,6 +270,14 @@ public class HotSwapAgent {
             .orElse(false);
     }
 
+    /// Whether to classify the changes of redefined classes to swap only the ones which need it, see [ClassShape].
+    /// Enabled by default, can be disabled with the agent argument `classifyChanges=false`.
+    public boolean classifyChanges() {
+        return ofNullable(args.get("classifyChanges"))
+            .map(Boolean::valueOf)
+            .orElse(true);
+    }
+
     // when not using the Gradle plugin, the agent _may_ not receive the port argument, in that case get one so that
     // there can be communication with the DevTools
     private int getAvailablePort() {
@@ -0,0 +1,213 @@
+/*
+ * Copyright (C) 2026 Parisi Alessandro - alessandro.parisi406@gmail.com
+ * This file is part of HotSwapFX (https://github.com/palexdev/HotSwapFX)
+ *
+ * HotSwapFX is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * HotSwapFX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with HotSwapFX. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.palexdev.hotswapfx.runtime;
+
+import java.lang.instrument.ClassFileTransformer;
+import java.lang.instrument.Instrumentation;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.security.ProtectionDomain;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.tinylog.Logger;
+
+/// Index of the classes loaded by the JVM, by name and per class loader, maintained by the agent.
+///
+/// The index is seeded with [Instrumentation#getAllLoadedClasses()] and then kept up to date by registering itself as a
+/// [ClassFileTransformer], which is notified every time a class is defined (and redefined). The transformer never
+/// changes the bytecode, it just records the defining class loader. This gives constant-time resolution of the classes
+/// to redefine, without loading anything new, and works with module layers and custom/plugin class loaders, since
+/// each class is resolved through the loader which defined it.
+///
+/// Every entry also holds the [hash][ClassFiles#hash(byte\[\])] of the bytecode last defined for the class, so that
+/// redefinitions with identical bytes can be skipped, see [#isUnchanged(Class, long)]. The hash is recorded when the class
+/// is first defined, and by the agent after every successful redefinition, see [#update(Class, long, ClassShape)].
+/// Classes loaded before the agent was installed have no hash until their first redefinition.
+///
+/// After a redefinition, entries also hold the [ClassShape] of the new bytecode, which the agent uses to classify the
+/// changes of the next one. Shapes are not computed when classes are first defined, as that would mean parsing every
+/// class the application loads, most of which are never redefined; the first redefinition of a class thus has no
+/// previous shape to compare with.
+///
+/// Class loaders are referenced weakly: when one is collected (thus its classes unloaded), its entries are pruned.
+final class LoadedClassIndex implements ClassFileTransformer {
+
+    //================================================================================
+    // Properties
+    //================================================================================
+
+    private final Map<String, List<Entry>> index = new ConcurrentHashMap<>();
+    private final ReferenceQueue<ClassLoader> refQueue = new ReferenceQueue<>();
+    private final ThreadLocal<Boolean> transforming = new ThreadLocal<>();
+
+    //================================================================================
+    // Methods
+    //================================================================================
+
+    /// Registers the index on the given [Instrumentation] and adds all the classes loaded so far.
+    ///
+    /// Every code path of [#transform(ClassLoader, String, Class, ProtectionDomain, byte\[\])] is exercised before
+    /// registering it. Otherwise, the first class it needs which is not loaded yet (e.g., JDK internals) would be loaded
+    /// by the transformer itself, while the JVM is defining another class, failing with a [ClassCircularityError].
+    void install(Instrumentation inst) {
+        seed(inst);
+        transform(null, "java/lang/Object", Object.class, null, null);
+        ClassFiles.hash(new byte[1]);
+        inst.addTransformer(this, false);
+        seed(inst); // Classes loaded in the meantime
+    }
+
+    /// @return all the loaded classes with the given binary name (more than one if defined by different loaders), empty
+    /// if the class is not loaded
+    List<Class<?>> lookup(String className) {
+        expunge();
+        List<Entry> entries = index.get(className);
+        if (entries == null) return List.of();
+        List<Class<?>> classes = new ArrayList<>(entries.size());
+        for (Entry e : entries) {
+            Class<?> c = e.resolve();
+            if (c != null) classes.add(c);
+        }
+        return classes;
+    }
+
+    /// @return whether the bytecode last defined for the given class has the given hash
+    boolean isUnchanged(Class<?> klass, long hash) {
+        return entry(klass.getName(), klass.getClassLoader()).hash == hash;
+    }
+
+    /// @return the shape of the bytecode the given class was last redefined with, `null` if unknown
+    ClassShape shapeOf(Class<?> klass) {
+        return entry(klass.getName(), klass.getClassLoader()).shape;
+    }
+
+    /// Records the hash and shape of the bytecode the given class has been redefined with.
+    ///
+    /// _This is not done in [#transform(ClassLoader, String, Class, ProtectionDomain, byte\[\])] for redefinitions,
+    /// because the operation may still fail after the transformers are notified._
+    void update(Class<?> klass, long hash, ClassShape shape) {
+        Entry entry = entry(klass.getName(), klass.getClassLoader());
+        entry.hash = hash;
+        entry.shape = shape;
+    }
+
+    /// Records the definition of a class, never changing its bytecode.
+    ///
+    /// Classes loaded by this method itself are skipped, as they would re-enter it on the same thread. Failures are
+    /// swallowed, since the index must never break class loading: at worst, the class is not indexed.
+    @Override
+    public byte[] transform(ClassLoader loader, String internalName, Class<?> classBeingRedefined, ProtectionDomain domain, byte[] bytes) {
+        if (internalName == null || transforming.get() != null) return null;
+        transforming.set(Boolean.TRUE);
+        try {
+            String className = internalName.replace('/', '.');
+            Entry entry = entry(className, loader);
+            if (classBeingRedefined != null) {
+                entry.klass = new WeakReference<>(classBeingRedefined);
+            } else {
+                entry.hash = ClassFiles.hash(bytes);
+            }
+        } catch (Throwable ignored) {
+            // Best effort, see above
+        } finally {
+            transforming.remove();
+        }
+        return null;
+    }
+
+    /// Adds all the classes loaded so far to the index.
+    private void seed(Instrumentation inst) {
+        for (Class<?> c : inst.getAllLoadedClasses()) {
+            if (c.isArray() || c.isPrimitive() || c.isHidden()) continue;
+            entry(c.getName(), c.getClassLoader()).klass = new WeakReference<>(c);
+        }
+    }
+
+    /// @return the entry for the given class and loader, created if absent
+    private Entry entry(String className, ClassLoader loader) {
+        List<Entry> entries = index.computeIfAbsent(className, _ -> new CopyOnWriteArrayList<>());
+        for (Entry e : entries) {
+            if (e.isDefinedBy(loader)) return e;
+        }
+        synchronized (entries) {
+            for (Entry e : entries) {
+                if (e.isDefinedBy(loader)) return e;
+            }
+            Entry e = new Entry(className, loader, refQueue);
+            entries.add(e);
+            return e;
+        }
+    }
+
+    /// Removes the entries of the class loaders which have been collected.
+    private void expunge() {
+        Reference<? extends ClassLoader> ref;
+        while ((ref = refQueue.poll()) != null) {
+            Entry e = (Entry) ref;
+            index.computeIfPresent(e.className, (_, entries) -> {
+                entries.remove(e);
+                return entries.isEmpty() ? null : entries;
+            });
+        }
+    }
+
+    //================================================================================
+    // Inner Classes
+    //================================================================================
+
+    /// A class defined by a certain loader. The [Class] object does not exist yet when the transformer is notified of
+    /// the definition, so it is resolved lazily through its loader (without initializing it) and cached.
+    static final class Entry extends WeakReference<ClassLoader> {
+        private final String className;
+        private final boolean bootstrap;
+        private volatile WeakReference<Class<?>> klass;
+        private volatile long hash;
+        private volatile ClassShape shape;
+
+        Entry(String className, ClassLoader loader, ReferenceQueue<ClassLoader> queue) {
+            super(loader, queue);
+            this.className = className;
+            this.bootstrap = loader == null;
+        }
+
+        boolean isDefinedBy(ClassLoader loader) {
+            return loader == null ? bootstrap : get() == loader;
+        }
+
+        Class<?> resolve() {
+            Class<?> c = klass != null ? klass.get() : null;
+            if (c != null) return c;
+            ClassLoader loader = get();
+            if (loader == null && !bootstrap) return null;
+            try {
+                c = Class.forName(className, false, loader);
+                klass = new WeakReference<>(c);
+                return c;
+            } catch (Throwable ex) {
+                Logger.trace("Could not resolve class {}: {}", className, ex.getMessage());
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2026 Parisi Alessandro - alessandro.parisi406@gmail.com
+ * This file is part of HotSwapFX (https://github.com/palexdev/HotSwapFX)
+ *
+ * HotSwapFX is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * HotSwapFX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with HotSwapFX. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.palexdev.hotswapfx.runtime;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import io.github.palexdev.hotswapfx.core.HotSwapException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClassFilesTest {
+
+    @Test
+    void testClassName() throws IOException {
+        assertEquals(ClassFilesTest.class.getName(), ClassFiles.className(bytesOf(ClassFilesTest.class)));
+        assertEquals(Outer.Inner.class.getName(), ClassFiles.className(bytesOf(Outer.Inner.class)));
+        assertEquals(Outer.Inner.Deepest.class.getName(), ClassFiles.className(bytesOf(Outer.Inner.Deepest.class)));
+    }
+
+    @Test
+    void testMalformed() throws IOException {
+        byte[] bytes = bytesOf(Outer.Inner.class);
+        byte[] badMagic = bytes.clone();
+        badMagic[0] = 0;
+        assertThrows(HotSwapException.class, () -> ClassFiles.className(badMagic));
+        assertThrows(HotSwapException.class, () -> ClassFiles.className(Arrays.copyOf(bytes, bytes.length / 2)));
+        assertThrows(HotSwapException.class, () -> ClassFiles.className(Arrays.copyOf(bytes, 6)));
+        assertThrows(HotSwapException.class, () -> ClassFiles.className(new byte[0]));
+
+        byte[] badTag = bytes.clone();
+        badTag[10] = 99; // First constant pool entry
+        assertThrows(HotSwapException.class, () -> ClassFiles.className(badTag));
+    }
+
+    @Test
+    void testHash() throws IOException {
+        byte[] bytes = bytesOf(Outer.Inner.class);
+        assertEquals(ClassFiles.hash(bytes), ClassFiles.hash(bytes.clone()));
+        assertNotEquals(0, ClassFiles.hash(bytes));
+        assertNotEquals(ClassFiles.hash(bytes), ClassFiles.hash(bytesOf(Outer.Inner.Deepest.class)));
+
+        byte[] edited = bytes.clone();
+        edited[edited.length - 1] ^= 1;
+        assertNotEquals(ClassFiles.hash(bytes), ClassFiles.hash(edited));
+    }
+
+    static byte[] bytesOf(Class<?> klass) throws IOException {
+        String name = klass.getName();
+        try (InputStream in = klass.getResourceAsStream(name.substring(name.lastIndexOf('.') + 1) + ".class")) {
+            assertNotNull(in, "Bytecode of " + name + " not found");
+            return in.readAllBytes();
+        }
+    }
+
+    //================================================================================
+    // Fixtures
+    //================================================================================
+
+    static class Outer {
+        static class Inner {
+            static final long LONG = 1L << 40; // Takes two constant pool slots
+            static final double DOUBLE = Math.PI;
+
+            static class Deepest {}
+        }
+    }
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright (C) 2026 Parisi Alessandro - alessandro.parisi406@gmail.com
+ * This file is part of HotSwapFX (https://github.com/palexdev/HotSwapFX)
+ *
+ * HotSwapFX is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * HotSwapFX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with HotSwapFX. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.palexdev.hotswapfx.runtime;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import javax.tools.ToolProvider;
+
+import io.github.palexdev.hotswapfx.core.HotSwapException;
+import io.github.palexdev.hotswapfx.runtime.ClassShape.Change;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClassShapeTest {
+    private static final String BASE = """
+        public abstract class Base {
+            protected Base() { build(); }
+            protected abstract void build();
+            protected void setOnAction(javafx.event.EventHandler<String> handler) {}
+        }
+        """;
+    private static final String EVENT_HANDLER = """
+        package javafx.event;
+        public interface EventHandler<T> {
+            void handle(T event);
+        }
+        """;
+    private static final String VIEW = """
+        public class View extends Base {
+            private final int value;
+            public View() {
+                value = 1;
+                setup();
+                Runnable r = () -> System.out.println("%s");
+                setOnAction(e -> System.out.println("%s"));
+            }
+            private void setup() { System.out.println("%s"); }
+            @Override
+            protected void build() { System.out.println("%s"); }
+            public void handle() { System.out.println("%s"); }
+            public Runnable handler() { return () -> System.out.println("%s"); }
+        }
+        """;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testUnchanged() throws Exception {
+        assertEquals(Change.BODY, compare(view("a", "b", "c", "d", "e", "f"), view("a", "b", "c", "d", "e", "f")));
+    }
+
+    @Test
+    void testBody() throws Exception {
+        String v1 = view("a", "b", "c", "d", "e", "f");
+        assertEquals(Change.BODY, compare(v1, view("a", "b", "c", "D", "e", "f")));
+        // A lambda created outside of construction
+        assertEquals(Change.BODY, compare(v1, view("a", "b", "c", "d", "E", "f")));
+        // An event handler registered by the constructor
+        assertEquals(Change.BODY, compare(v1, view("a", "b", "c", "d", "e", "F")));
+        String ref = """
+            public class View extends Base {
+                public View() { setOnAction(this::%s); }
+                void one(String event) { System.out.println("%s"); }
+                void two(String event) {}
+                @Override
+                protected void build() {}
+            }
+            """;
+        assertEquals(Change.BODY, compare(ref.formatted("one", "a"), ref.formatted("one", "b")));
+    }
+
+    @Test
+    void testInitializer() throws Exception {
+        String v1 = view("a", "b", "c", "d", "e", "f");
+        // A lambda created by the constructor
+        assertEquals(Change.INITIALIZER, compare(v1, view("A", "b", "c", "d", "e", "f")));
+        // A private method invoked by the constructor
+        assertEquals(Change.INITIALIZER, compare(v1, view("a", "B", "c", "d", "e", "f")));
+        // An override invoked by the superclass constructor
+        assertEquals(Change.INITIALIZER, compare(v1, view("a", "b", "C", "d", "e", "f")));
+        // Static initializer
+        assertEquals(Change.INITIALIZER, compare(
+            v1.replace("private final int value;", "static { System.out.println(); } private final int value;"),
+            v1.replace("private final int value;", "static { System.out.println(1); } private final int value;")
+        ));
+        // Method reference stored in a field
+        String ref = """
+            public class View extends Base {
+                final Runnable r = this::%s;
+                void one() { System.out.println("%s"); }
+                void two() {}
+                @Override
+                protected void build() {}
+            }
+            """;
+        assertEquals(Change.INITIALIZER, compare(ref.formatted("one", "a"), ref.formatted("one", "b")));
+        assertEquals(Change.INITIALIZER, compare(ref.formatted("one", "a"), ref.formatted("two", "a")));
+        // Registering a different event handler
+        String handler = """
+            public class View extends Base {
+                public View() { setOnAction(this::%s); }
+                void one(String event) {}
+                void two(String event) {}
+                @Override
+                protected void build() {}
+            }
+            """;
+        assertEquals(Change.INITIALIZER, compare(handler.formatted("one"), handler.formatted("two")));
+    }
+
+    @Test
+    void testStructure() throws Exception {
+        String v1 = view("a", "b", "c", "d", "e", "f");
+        assertEquals(Change.STRUCTURE, compare(v1, v1.replace("private final int value;", "private final int value, other = 0;")));
+        assertEquals(Change.STRUCTURE, compare(v1, v1.replace("public void handle()", "public void handle(int i)")));
+        assertEquals(Change.STRUCTURE, compare(v1, v1.replace("public class View", "@Deprecated public class View")));
+        // Declaration order does not matter
+        String order = """
+            public class View extends Base {
+                %s
+                %s
+                @Override
+                protected void build() {}
+            }
+            """;
+        String first = "public void first() {}";
+        String second = "public int second;";
+        assertEquals(Change.BODY, compare(order.formatted(first, second), order.formatted(second, first)));
+    }
+
+    @Test
+    void testVariableLengthInstructions() throws Exception {
+        StringBuilder locals = new StringBuilder();
+        for (int i = 0; i < 300; i++) locals.append("int l").append(i).append(" = k; ");
+        String source = """
+            public class View extends Base {
+                public View() { compute(0); }
+                @Override
+                protected void build() {}
+                static int compute(int k) {
+                    int r = 0;
+                    switch (k) {
+                        case 1: r = 3; break;
+                        case 2: r = 5; break;
+                        case 3: r = 7; break;
+                        case 4: r = 9; break;
+                    }
+                    switch (k) {
+                        case 10: r++; break;
+                        case 1000: r--; break;
+                        case 100000: r += 2; break;
+                    }
+                    %s
+                    l299 += %d;
+                    return r + l299 + %d;
+                }
+            }
+            """;
+        // 300 locals force wide loads, stores and iinc, a misread length would throw or misplace the next instructions
+        ClassShape shape = ClassShape.of(compile(source.formatted(locals, 1000, 1)));
+        assertEquals(shape, ClassShape.of(compile(source.formatted(locals, 1000, 1))));
+        assertEquals(Change.INITIALIZER, shape.compare(ClassShape.of(compile(source.formatted(locals, 1001, 1))), _ -> false));
+        assertEquals(Change.INITIALIZER, shape.compare(ClassShape.of(compile(source.formatted(locals, 1000, 2))), _ -> false));
+    }
+
+    @Test
+    void testMalformed() throws Exception {
+        byte[] bytes = compile(view("a", "b", "c", "d", "e", "f"));
+        assertThrows(HotSwapException.class, () -> ClassShape.of(Arrays.copyOf(bytes, bytes.length - 10)));
+    }
+
+    @Test
+    void testIsOverride() {
+        assertTrue(ClassShape.isOverride(Sub.class, "build()V"));
+        assertTrue(ClassShape.isOverride(Sub.class, "toString()Ljava/lang/String;"));
+        assertTrue(ClassShape.isOverride(Sub.class, "run()V")); // Interface
+        assertFalse(ClassShape.isOverride(Sub.class, "build(I)V"));
+        assertFalse(ClassShape.isOverride(Sub.class, "own()V"));
+        assertFalse(ClassShape.isOverride(Sub.class, "hidden()V")); // Private in the superclass
+    }
+
+    private static String view(String lambda, String helper, String override, String handler, String handlerLambda, String action) {
+        return VIEW.formatted(lambda, action, helper, override, handler, handlerLambda);
+    }
+
+    /// Compares the shapes of two versions of the `View` class, using the actual superclass to detect overrides.
+    private Change compare(String v1, String v2) throws IOException {
+        ClassShape old = ClassShape.of(compile(v1));
+        byte[] bytes = compile(v2);
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{dir.toUri().toURL()})) {
+            Class<?> klass = loader.loadClass("View");
+            return old.compare(ClassShape.of(bytes), m -> ClassShape.isOverride(klass, m));
+        } catch (ClassNotFoundException ex) {
+            throw new AssertionError(ex);
+        }
+    }
+
+    /// Compiles the given source of the `View` class, along with `Base` and a stub of JavaFX's `EventHandler`, into the
+    /// temporary directory.
+    ///
+    /// @return the bytecode of `View`
+    private byte[] compile(String source) throws IOException {
+        Path handler = Files.createDirectories(dir.resolve("javafx/event")).resolve("EventHandler.java");
+        Files.writeString(handler, EVENT_HANDLER);
+        Files.writeString(dir.resolve("Base.java"), BASE);
+        Files.writeString(dir.resolve("View.java"), source);
+        int result = ToolProvider.getSystemJavaCompiler().run(
+            null, null, null,
+            "-d", dir.toString(),
+            handler.toString(), dir.resolve("Base.java").toString(), dir.resolve("View.java").toString()
+        );
+        assertEquals(0, result, "Fixture did not compile");
+        return Files.readAllBytes(dir.resolve("View.class"));
+    }
+
+    //================================================================================
+    // Fixtures
+    //================================================================================
+
+    static abstract class Super implements Runnable {
+        protected abstract void build();
+
+        private void hidden() {}
+    }
+
+    static class Sub extends Super {
+        @Override
+        protected void build() {}
+
+        @Override
+        public void run() {}
+
+        @Override
+        public String toString() {
+            return "";
+        }
+
+        void build(int i) {}
+
+        void own() {}
+
+        private void hidden() {}
+    }
+}
@@ -22,11 +22,15 @@ import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
 import java.util.List;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 import javax.imageio.ImageIO;
 
+import io.github.palexdev.hotswapfx.core.ImageCache;
 import io.github.palexdev.imcache.transforms.Pad;
 import io.github.palexdev.mfxcore.controls.MFXSkinBase;
 import io.github.palexdev.mfxcore.controls.MFXStyleable;
@@ -59,6 +63,8 @@ public class ForecastCard extends VFXCellBase<WeatherData.Forecast> {
     }
 
     static class ForecastCardSkin extends MFXSkinBase<ForecastCard> {
+        private static final Function<String, Image> PADDED = ForecastCardSkin::decode;
+
         private final Label hour;
         private final ImageView icon;
         private final Label temperature;
@@ -94,13 +100,22 @@ public class ForecastCard extends VFXCellBase<WeatherData.Forecast> {
             hour.setText(forecast.hour());
             temperature.setText(forecast.temperature() + "°");
 
-            try (InputStream is = WeatherApp.class.getResourceAsStream(forecast.condition().getIconPath())) {
+            URL url = WeatherApp.class.getResource(forecast.condition().getIconPath());
+            if (url == null) {
+                Logger.error("Failed to find weather conditions icon for forecast: " + forecast);
+                return;
+            }
+            icon.setImage(ImageCache.instance().get(url.toExternalForm(), 256.0, 256.0, PADDED));
+        }
+
+        private static Image decode(String url) {
+            try (InputStream is = URI.create(url).toURL().openStream()) {
                 BufferedImage bimg = ImageIO.read(is);
                 bimg = new Pad(256.0, 256.0, new Color(0, 0, 0, 0)).transform(bimg);
-                Image fxImage = SwingFXUtils.toFXImage(bimg, null);
-                icon.setImage(fxImage);
+                return SwingFXUtils.toFXImage(bimg, null);
             } catch (IOException ex) {
-                Logger.error(ex, "Failed to load weather conditions icon for forecast: " + forecast);
+                Logger.error(ex, "Failed to load weather conditions icon: " + url);
+                return null;
             }
         }
 
@@ -32,8 +32,7 @@ import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 
 @HotSwappable(
-    dependencies = {Header.class, ForecastCard.class, DetailsPane.class},
-    resources = "*.{css}"
+    dependencies = {Header.class, ForecastCard.class, DetailsPane.class}
 )
 public class WeatherView extends VBox {
 